@@ -1,80 +1,126 @@
 package SuperMario.graphic.manager;
 
 import SuperMario.input.ButtonAction;
+import SuperMario.input.InputQueue;
 import SuperMario.graphic.view.states.GameState;
 import SuperMario.logic.GameEngine;
-import org.json.simple.parser.ParseException;
+import SuperMario.logic.GameSession;
+import SuperMario.logic.LatencyTracer;
+import SuperMario.logic.TickScheduler;
 
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
-import java.io.IOException;
-import java.util.HashSet;
-import java.util.Set;
-import java.util.Timer;
-import java.util.TimerTask;
 
 import static java.awt.event.KeyEvent.*;
 
 
 public class InputManager implements KeyListener, MouseListener {
 
-    private static final InputManager instance = new InputManager();
-    private final Set<Integer> keyPressed;
+    private static final int ENTER = 1;
+    private static final int RIGHT = 1 << 1;
+    private static final int LEFT = 1 << 2;
+    private static final int UP = 1 << 3;
+    private static final int DOWN = 1 << 4;
+    private static final int SPACE = 1 << 5;
+    private static final int ESCAPE = 1 << 6;
+
+    private final InputQueue queue = new InputQueue();
+    // only touched by the game thread, which drains the queue at the start of every tick
+    private int keys;
+    private long lastEventTime;
     private boolean isUpAndDownPressed;
-    private Timer timer;
     ButtonAction currentAction = ButtonAction.NO_ACTION;
+    private final Runnable axeTimer = () -> {
+        if (currentAction == ButtonAction.ACTIVATE_AXE) {
+            isUpAndDownPressed = true;
+        }
+    };
 
-    private InputManager() {
-        keyPressed = new HashSet<>();
+    public InputManager() {
     }
 
     public static InputManager getInstance() {
-        return instance;
+        return GameSession.current().getInputManager();
     }
 
     @Override
     public void keyPressed(KeyEvent event) {
-        int keyCode = event.getKeyCode();
-        keyPressed.add(keyCode);
+        press(event.getKeyCode());
+    }
+
+    @Override
+    public void keyReleased(KeyEvent event) {
+        release(event.getKeyCode());
+    }
+
+    public void press(int keyCode) {
+        queue.offer(keyCode, true, System.nanoTime());
+    }
+
+    public void release(int keyCode) {
+        queue.offer(keyCode, false, System.nanoTime());
+    }
+
+    public boolean processInput(LatencyTracer tracer) {
+        boolean applied = false;
+        while (queue.poll()) {
+            lastEventTime = queue.getTime();
+            tracer.drained(lastEventTime, System.nanoTime());
+            int key = toKey(queue.getKeyCode());
+            if (key == 0) {
+                continue;
+            }
+            if (queue.isPressed()) {
+                onPress(key);
+            } else {
+                onRelease(key);
+            }
+            applied = true;
+        }
+        return applied;
+    }
+
+    private void onPress(int key) {
+        keys |= key;
         GameState state = GameEngine.getInstance().getGameState();
         boolean notRunningState = state == GameState.START_SCREEN || state == GameState.LOAD_GAME || state == GameState.PAUSED;
-        if (keyCode == VK_DOWN) {
+        if (key == DOWN) {
             if (notRunningState) {
                 currentAction = ButtonAction.GO_DOWN;
             } else {
-                if (keyPressed.contains(VK_UP)) {
+                if ((keys & UP) != 0) {
                     currentAction = ButtonAction.ACTIVATE_AXE;
                     setTimer();
                 } else {
                     currentAction = ButtonAction.SIT;
                 }
             }
-        } else if (keyCode == VK_UP) {
+        } else if (key == UP) {
             if (notRunningState) {
                 currentAction = ButtonAction.GO_UP;
             } else {
-                if (keyPressed.contains(VK_DOWN)) {
+                if ((keys & DOWN) != 0) {
                     currentAction = ButtonAction.ACTIVATE_AXE;
                     setTimer();
                 } else {
                     currentAction = ButtonAction.JUMP;
                 }
             }
-        } else if (keyCode == VK_RIGHT) {
+        } else if (key == RIGHT) {
             currentAction = ButtonAction.MOVE_RIGHT;
-        } else if (keyCode == VK_LEFT) {
+        } else if (key == LEFT) {
             currentAction = ButtonAction.MOVE_LEFT;
-        } else if (keyCode == VK_ENTER) {
+        } else if (key == ENTER) {
             currentAction = ButtonAction.SELECT;
-        } else if (keyCode == VK_ESCAPE) {
+        } else if (key == ESCAPE) {
             if (state == GameState.RUNNING || state == GameState.PAUSED) {
                 currentAction = ButtonAction.PAUSE_RESUME;
             } else {
                 currentAction = ButtonAction.GO_TO_START_SCREEN;
             }
-        } else if (keyCode == VK_SPACE) {
+        } else if (key == SPACE) {
             if (GameEngine.getInstance().getUserData().getHero().getAxe() != null) {
                 currentAction = ButtonAction.THROW_AXE;
             } else {
@@ -82,34 +128,43 @@ public class InputManager implements KeyListener, MouseListener {
             }
         }
 
-
-        try {
-            notifyInput(currentAction);
-        } catch (IOException | ParseException e) {
-            throw new RuntimeException(e);
-        }
+        notifyInput(currentAction);
     }
 
-    @Override
-    public void keyReleased(KeyEvent event) {
-        if (timer != null) {
-            timer.cancel();
-        }
+    private void onRelease(int key) {
+        TickScheduler.getInstance().cancel(axeTimer);
         isUpAndDownPressed = false;
-        keyPressed.remove(event.getKeyCode());
-        try {
-            notifyInput(ButtonAction.ACTION_COMPLETED);
-        } catch (IOException | ParseException e) {
-            throw new RuntimeException(e);
-        }
+        keys &= ~key;
+        notifyInput(ButtonAction.ACTION_COMPLETED);
     }
 
-    private void notifyInput(ButtonAction action) throws IOException, ParseException {
+    private void notifyInput(ButtonAction action) {
         if (action != ButtonAction.NO_ACTION) {
             GameEngine.getInstance().receiveInput();
         }
     }
 
+    private static int toKey(int keyCode) {
+        switch (keyCode) {
+            case VK_ENTER:
+                return ENTER;
+            case VK_RIGHT:
+                return RIGHT;
+            case VK_LEFT:
+                return LEFT;
+            case VK_UP:
+                return UP;
+            case VK_DOWN:
+                return DOWN;
+            case VK_SPACE:
+                return SPACE;
+            case VK_ESCAPE:
+                return ESCAPE;
+            default:
+                return 0;
+        }
+    }
+
     @Override
     public void mousePressed(MouseEvent e) {
     }
@@ -135,55 +190,57 @@ public class InputManager implements KeyListener, MouseListener {
     }
 
     public boolean isPressed(int keyCode) {
-        return keyPressed.contains(keyCode);
+        int key = toKey(keyCode);
+        return key != 0 && (keys & key) != 0;
     }
 
     public boolean isEnter() {
-        return isPressed(VK_ENTER);
+        return (keys & ENTER) != 0;
     }
 
     public boolean isRight() {
-        return isPressed(VK_RIGHT);
+        return (keys & RIGHT) != 0;
     }
 
     public boolean isLeft() {
-        return isPressed(VK_LEFT);
+        return (keys & LEFT) != 0;
     }
 
     public boolean isUp() {
-        return isPressed(VK_UP);
+        return (keys & UP) != 0;
     }
 
     public boolean isDown() {
-        return isPressed(VK_DOWN);
+        return (keys & DOWN) != 0;
     }
 
     public boolean isSpace() {
-        return isPressed(VK_SPACE);
+        return (keys & SPACE) != 0;
     }
 
     public boolean isEscape() {
-        return isPressed(VK_ESCAPE);
+        return (keys & ESCAPE) != 0;
     }
 
     public boolean isEmpty() {
-        return keyPressed.isEmpty();
+        return keys == 0;
     }
 
     public boolean isUpAndDownSelected() {
-        return keyPressed.contains(VK_UP) && keyPressed.contains(VK_DOWN) && isUpAndDownPressed;
+        return (keys & (UP | DOWN)) == (UP | DOWN) && isUpAndDownPressed;
     }
 
     public void setTimer() {
-        TimerTask task = new TimerTask() {
-            @Override
-            public void run() {
-                if (currentAction == ButtonAction.ACTIVATE_AXE) {
-                    isUpAndDownPressed = true;
-                }
-            }
-        };
-        timer = new Timer();
-        timer.schedule(task, 2000);
+        TickScheduler scheduler = TickScheduler.getInstance();
+        scheduler.cancel(axeTimer);
+        scheduler.schedule(axeTimer, 2000);
+    }
+
+    public long getLastEventTime() {
+        return lastEventTime;
+    }
+
+    public long getDroppedEvents() {
+        return queue.getDropped();
     }
 }
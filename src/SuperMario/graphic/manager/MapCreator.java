@@ -1,16 +1,21 @@
 package SuperMario.graphic.manager;
 
+import SuperMario.model.EntityKind;
+import SuperMario.model.GameObject;
 import SuperMario.model.enemy.*;
 import SuperMario.model.enemy.bowser.Bowser;
 import SuperMario.model.map.Castle;
 import SuperMario.model.map.Flag;
 import SuperMario.model.map.Map;
+import SuperMario.model.map.TileMap;
+import SuperMario.model.map.TileType;
 import SuperMario.model.hero.Hero;
 import SuperMario.model.hero.Mario;
 import SuperMario.model.obstacle.*;
 import SuperMario.model.prize.*;
 
 import SuperMario.input.ImageLoader;
+import SuperMario.logic.GameSession;
 
 
 import java.awt.*;
@@ -18,13 +23,38 @@ import java.awt.image.BufferedImage;
 
 public class MapCreator {
 
-    private int heroType;
     private Hero hero;
     private ImageLoader imageLoader;
     private BufferedImage backgroundImage, crossoverBackground, castle;
     private BufferedImage superMushroom, oneHeartUpMushroom, fireFlower, coin;
     private BufferedImage border, ordinaryBrick, surpriseBrick, prizeBrick, slime, slimeOnTouch, oneCoinBrick, fiveCoinBrick, groundBrick, pipe, smallPipe, upSidePipe, hole;
     private BufferedImage boss, goombaLeft, goombaRight, shell, koopaLeft, koopaRight, spinyLeft, spinyRight, piranhaOpen, piranhaClose, superStar, endFlag;
+    // shared by every entity of a kind, the animation clock picks the frame
+    private BufferedImage[] prizeBrickFrames, goombaFrames, piranhaFrames;
+    private MapStreamer streamer;
+
+    private static final int PIXEL_MULTIPLIER = 48;
+    private final int heroColor = new Color(160, 160, 160).getRGB();
+    private final int ordinaryBrickColor = new Color(0, 0, 255).getRGB();
+    private final int surpriseBrickColor = new Color(255, 255, 0).getRGB();
+    private final int groundBrickColor = new Color(255, 0, 0).getRGB();
+    private final int checkPointColor = new Color(160, 80, 160).getRGB();
+    private final int pipeColor = new Color(0, 255, 0).getRGB();
+    private final int goombaColor = new Color(0, 255, 255).getRGB();
+    private final int koopaColor = new Color(255, 0, 255).getRGB();
+    private final int endColor = new Color(160, 0, 160).getRGB();
+    private final int holeColor = new Color(200, 191, 231).getRGB();
+    private final int spinyColor = new Color(128, 255, 128).getRGB();
+    private final int piranhaColor = new Color(200, 124, 124).getRGB();
+    private final int coinBrickColor = new Color(255, 124, 0).getRGB();
+    private final int multiCoinBrickColor = new Color(20, 100, 40).getRGB();
+    private final int smallPipeColor = new Color(34, 177, 76).getRGB();
+    private final int borderColor = new Color(127, 51, 0).getRGB();
+    private final int lavaBorderColor = new Color(185, 122, 87).getRGB();
+    private final int slimeColor = new Color(100, 255, 100).getRGB();
+    private final int crossoverColor = new Color(112, 146, 190).getRGB();
+    private final int bossColor = new Color(255, 120, 40).getRGB();
+    private final int castleColor = new Color(140, 40, 40).getRGB();
 
 
     public MapCreator() {
@@ -35,7 +65,6 @@ public class MapCreator {
     public MapCreator(Hero hero) {
         this.hero = hero;
         this.imageLoader = ImageLoader.getInstance();
-        imageLoader.setHeroType(hero.getType());
         loadImages();
     }
 
@@ -72,17 +101,16 @@ public class MapCreator {
         this.endFlag = imageLoader.getEndFlag();
         this.boss = imageLoader.getBoss();
         this.castle = imageLoader.getCastle();
+        this.prizeBrickFrames = new BufferedImage[]{surpriseBrick, prizeBrick};
+        this.goombaFrames = new BufferedImage[]{goombaLeft, goombaRight};
+        this.piranhaFrames = new BufferedImage[]{piranhaClose, piranhaOpen};
     }
 
     public Map createCrossOver(String path, Hero hero) {
 
-        BufferedImage crossoverImage = imageLoader.loadImage(path);
+        BufferedImage crossoverImage = imageLoader.loadMapImage(path);
         this.hero = hero;
 
-        if (this.hero != null) {
-            updateImageLoader(heroType);
-        }
-
         Map crossover = new Map(hero);
         crossover.setRemainingTime(100);
         crossover.setBackgroundImage(crossoverBackground);
@@ -110,10 +138,7 @@ public class MapCreator {
                 } else if (currentPixel == surpriseBrick) {
                     Prize prize = generateRandomPrizeForCrossover(xLocation, yLocation);
                     SurpriseBrick prizeBrick = new SurpriseBrick(xLocation, yLocation, this.surpriseBrick, prize);
-                    BufferedImage[] frames = new BufferedImage[2];
-                    frames[0] = this.surpriseBrick;
-                    frames[1] = this.prizeBrick;
-                    prizeBrick.setFrames(frames);
+                    prizeBrick.setFrames(prizeBrickFrames);
                     crossover.addObstacle(prizeBrick);
                 } else if (currentPixel == tunnel) {
                     Obstacle obstacle = new CrossoverTunnel(xLocation, yLocation, this.pipe);
@@ -147,165 +172,219 @@ public class MapCreator {
             } else {
                 this.hero.setX(xLocation);
                 this.hero.setY(yLocation);
-                setHeroType();
-                imageLoader.setHeroType(heroType);
-                updateImageLoader(heroType);
                 map.setHero(this.hero);
             }
         }
     }
 
     public Map createMap(String mapPath) {
-        BufferedImage mapImage = imageLoader.loadImage(mapPath);
+        BufferedImage mapImage = imageLoader.loadMapImage(mapPath);
 
         if (mapImage == null) {
             System.out.println("Given path is invalid...");
             return null;
         }
 
-        if (this.hero != null) {
-            updateImageLoader(heroType);
-        }
-
         Map map = new Map();
         map.setRemainingTime(400);
         map.setBackgroundImage(backgroundImage);
         String[] paths = mapPath.split("/");
         map.setPath(paths[paths.length - 1]);
 
-        int pixelMultiplier = 48;
-
-        int hero = new Color(160, 160, 160).getRGB();
-        int ordinaryBrick = new Color(0, 0, 255).getRGB();
-        int surpriseBrick = new Color(255, 255, 0).getRGB();
-        int groundBrick = new Color(255, 0, 0).getRGB();
-        int checkPoint = new Color(160, 80, 160).getRGB();
-        int pipe = new Color(0, 255, 0).getRGB();
-        int goomba = new Color(0, 255, 255).getRGB();
-        int koopa = new Color(255, 0, 255).getRGB();
-        int end = new Color(160, 0, 160).getRGB();
-        int hole = new Color(200, 191, 231).getRGB();
-        int spiny = new Color(128, 255, 128).getRGB();
-        int piranha = new Color(200, 124, 124).getRGB();
-        int coinBrick = new Color(255, 124, 0).getRGB();
-        int multiCoinBrick = new Color(20, 100, 40).getRGB();
-        int smallPipe = new Color(34, 177, 76).getRGB();
-        int border = new Color(127, 51, 0).getRGB();
-        int lavaBorder = new Color(185, 122, 87).getRGB();
-        int slime = new Color(100, 255, 100).getRGB();
-        int crossover = new Color(112, 146, 190).getRGB();
-        int boss = new Color(255, 120, 40).getRGB();
-        int castleColor = new Color(140, 40, 40).getRGB();
+        boolean streamed = mapImage.getWidth() > MapStreamer.CHUNK_WIDTH * MapStreamer.MIN_CHUNKS;
 
+        // boss fight ground bricks break under the hero, so they stay objects there
+        if (!hasBoss(mapImage)) {
+            map.setTileMap(createTileMap(mapImage.getWidth(), mapImage.getHeight()));
+        }
 
         for (int x = 0; x < mapImage.getWidth(); x++) {
             for (int y = 0; y < mapImage.getHeight(); y++) {
 
                 int currentPixel = mapImage.getRGB(x, y);
-                int xLocation = x * pixelMultiplier;
-                int yLocation = y * pixelMultiplier;
-
-                if (currentPixel == ordinaryBrick) {
-                    Brick brick = new OrdinaryBrick(xLocation, yLocation, this.ordinaryBrick);
-                    map.addObstacle(brick);
-                } else if (currentPixel == hole) {
-                    Hole holeObstacle = new Hole(xLocation, yLocation, this.hole);
-                    map.addObstacle(holeObstacle);
-                } else if (currentPixel == checkPoint) {
-                    CheckPoint point = new CheckPoint(xLocation, yLocation, this.surpriseBrick);
-                    BufferedImage[] frames = new BufferedImage[2];
-                    frames[0] = this.surpriseBrick;
-                    frames[1] = this.prizeBrick;
-                    point.setFrames(frames);
-                    map.addObstacle(point);
-                    map.setCheckPoint(point);
-                } else if (currentPixel == border) {
-                    Border groundBorder = new Border(xLocation, yLocation, this.border);
-                    map.addObstacle(groundBorder);
-                } else if (currentPixel == lavaBorder) {
-                    LavaBorder lavaGroundBorder = new LavaBorder(xLocation, yLocation, this.border);
-                    lavaGroundBorder.setFrames(imageLoader.getLavaFrames());
-                    map.addGroundBrick(lavaGroundBorder);
-                } else if (currentPixel == slime) {
-                    Slime slimeBrick = new Slime(xLocation, yLocation, this.slime);
-                    slimeBrick.slimeOnTouch(slimeOnTouch);
-                    map.addObstacle(slimeBrick);
-                } else if (currentPixel == surpriseBrick) {
-                    Prize prize = generateRandomPrize(xLocation, yLocation);
-                    SurpriseBrick prizeBrick = new SurpriseBrick(xLocation, yLocation, this.surpriseBrick, prize);
-                    BufferedImage[] frames = new BufferedImage[2];
-                    frames[0] = this.surpriseBrick;
-                    frames[1] = this.prizeBrick;
-                    prizeBrick.setFrames(frames);
-                    map.addObstacle(prizeBrick);
-                } else if (currentPixel == coinBrick) {
-                    Prize prize = new Coin(xLocation, yLocation, this.coin, 10);
-                    Brick brick = new CoinBrick(xLocation, yLocation, this.oneCoinBrick, prize);
-                    map.addObstacle(brick);
-                } else if (currentPixel == multiCoinBrick) {
-                    Prize prize = new Coin(xLocation, yLocation, this.coin, 10);
-                    Brick brick = new MultiCoinBrick(xLocation, yLocation, this.fiveCoinBrick, prize);
-                    map.addObstacle(brick);
-                } else if (currentPixel == smallPipe) {
-                    Brick groundPipe = new SmallPipe(xLocation, yLocation, this.smallPipe);
-                    map.addGroundBrick(groundPipe);
-                } else if (currentPixel == groundBrick) {
-                    Brick brick = new GroundBrick(xLocation, yLocation, this.groundBrick);
-                    map.addGroundBrick(brick);
-                } else if (currentPixel == pipe) {
-                    Obstacle groundPipe = new Pipe(xLocation, yLocation, this.pipe);
-                    map.addGroundBrick(groundPipe);
-                } else if (currentPixel == crossover) {
-                    Obstacle crossoverTunnel = new CrossoverTunnel(xLocation, yLocation, this.pipe);
-                    map.addGroundBrick(crossoverTunnel);
-                } else if (currentPixel == end) {
-                    Flag endPoint = new Flag(xLocation + 24, yLocation, this.endFlag);
-                    map.setEndPoint(endPoint);
-                } else if (currentPixel == castleColor) {
-                    Castle castle = new Castle(xLocation, yLocation, this.castle);
-                    map.setCastle(castle);
-                } else if (currentPixel == goomba) {
-                    Goomba enemy = new Goomba(xLocation, yLocation, this.goombaLeft);
-                    BufferedImage[] frames = new BufferedImage[2];
-                    frames[0] = this.goombaLeft;
-                    frames[1] = this.goombaRight;
-                    enemy.setFrames(frames);
-                    map.addEnemy(enemy);
-                } else if (currentPixel == koopa) {
-                    KoopaTroopa enemy = new KoopaTroopa(xLocation, yLocation, this.koopaLeft);
-                    enemy.setRightImage(koopaRight);
-                    enemy.setShell(this.shell);
-                    map.addEnemy(enemy);
-                } else if (currentPixel == spiny) {
-                    Spiny enemy = new Spiny(xLocation, yLocation, this.spinyLeft);
-                    enemy.setRightImage(spinyRight);
-                    map.addEnemy(enemy);
-                } else if (currentPixel == piranha) {
-                    Piranha enemy = new Piranha(xLocation + 22, yLocation, this.piranhaClose);
-                    BufferedImage[] frames = new BufferedImage[2];
-                    frames[0] = this.piranhaClose;
-                    frames[1] = this.piranhaOpen;
-                    enemy.setFrames(frames);
-                    map.addEnemy(enemy);
-                } else if (currentPixel == boss) {
-                    Bowser bowser = new Bowser(xLocation, yLocation, this.boss);
-                    bowser.setLeftFrames(imageLoader.getBossLeftFrames());
-                    bowser.setRightFrames(imageLoader.getBossRightFrames());
-                    bowser.setFrames();
-                    bowser.setHero(this.hero);
-                    map.setBowser(bowser);
-                    map.addEnemy(bowser);
-                } else setHero(map, hero, currentPixel, xLocation, yLocation);
+                if (isGlobalTile(currentPixel)) {
+                    createTile(map, currentPixel, x * PIXEL_MULTIPLIER, y * PIXEL_MULTIPLIER, false);
+                }
             }
         }
 
+        // narrow maps are loaded in one go, the streamer still tracks their delta for snapshots
+        streamer = new MapStreamer(this, map, mapPath, mapImage.getWidth(), mapImage.getHeight(), streamed);
+
         System.out.println("Loading map.");
         return map;
     }
 
+    private boolean hasBoss(BufferedImage mapImage) {
+        for (int x = 0; x < mapImage.getWidth(); x++) {
+            for (int y = 0; y < mapImage.getHeight(); y++) {
+                if (mapImage.getRGB(x, y) == bossColor) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private TileMap createTileMap(int columns, int rows) {
+        TileMap tileMap = new TileMap(columns, rows);
+        tileMap.register(new TileType(EntityKind.BORDER, border, () -> new Border(0, 0, border)));
+        tileMap.register(new TileType(EntityKind.GROUND_BRICK, groundBrick, () -> new GroundBrick(0, 0, groundBrick)));
+        tileMap.register(new TileType(EntityKind.PIPE, pipe, () -> new Pipe(0, 0, pipe)));
+        tileMap.register(new TileType(EntityKind.SMALL_PIPE, smallPipe, () -> new SmallPipe(0, 0, smallPipe)));
+        tileMap.register(new TileType(EntityKind.HOLE, hole, () -> new Hole(0, 0, hole)));
+        return tileMap;
+    }
+
+    private boolean addTerrain(Map map, int kind, int xLocation, int yLocation) {
+        TileMap tileMap = map.getTileMap();
+        if (tileMap == null || !tileMap.isTerrain(kind)) {
+            return false;
+        }
+        tileMap.set(xLocation / PIXEL_MULTIPLIER, yLocation / PIXEL_MULTIPLIER, kind);
+        return true;
+    }
+
+    public boolean isGlobalTile(int currentPixel) {
+        return currentPixel == heroColor || currentPixel == endColor || currentPixel == castleColor
+                || currentPixel == checkPointColor || currentPixel == bossColor;
+    }
+
+    public GameObject createTile(Map map, int currentPixel, int xLocation, int yLocation, boolean revealed) {
+        if (currentPixel == ordinaryBrickColor) {
+            Brick brick = new OrdinaryBrick(xLocation, yLocation, this.ordinaryBrick);
+            map.addObstacle(brick);
+            return brick;
+        } else if (currentPixel == holeColor) {
+            if (addTerrain(map, EntityKind.HOLE, xLocation, yLocation)) {
+                return null;
+            }
+            Hole holeObstacle = new Hole(xLocation, yLocation, this.hole);
+            map.addObstacle(holeObstacle);
+            return holeObstacle;
+        } else if (currentPixel == checkPointColor) {
+            CheckPoint point = new CheckPoint(xLocation, yLocation, this.surpriseBrick);
+            point.setFrames(prizeBrickFrames);
+            map.addObstacle(point);
+            map.setCheckPoint(point);
+            return point;
+        } else if (currentPixel == borderColor) {
+            if (addTerrain(map, EntityKind.BORDER, xLocation, yLocation)) {
+                return null;
+            }
+            Border groundBorder = new Border(xLocation, yLocation, this.border);
+            map.addObstacle(groundBorder);
+            return groundBorder;
+        } else if (currentPixel == lavaBorderColor) {
+            LavaBorder lavaGroundBorder = new LavaBorder(xLocation, yLocation, this.border);
+            lavaGroundBorder.setFrames(imageLoader.getLavaFrames());
+            map.addGroundBrick(lavaGroundBorder);
+            return lavaGroundBorder;
+        } else if (currentPixel == slimeColor) {
+            Slime slimeBrick = new Slime(xLocation, yLocation, this.slime);
+            slimeBrick.slimeOnTouch(slimeOnTouch);
+            map.addObstacle(slimeBrick);
+            return slimeBrick;
+        } else if ((currentPixel == surpriseBrickColor || currentPixel == multiCoinBrickColor) && revealed) {
+            SurpriseBrick emptyBrick = new SurpriseBrick(xLocation, yLocation, imageLoader.getRevealedPrizeBrick(), null);
+            emptyBrick.setEmpty(true);
+            map.addObstacle(emptyBrick);
+            return emptyBrick;
+        } else if (currentPixel == surpriseBrickColor) {
+            Prize prize = generateRandomPrize(xLocation, yLocation);
+            SurpriseBrick prizeBrick = new SurpriseBrick(xLocation, yLocation, this.surpriseBrick, prize);
+            prizeBrick.setFrames(prizeBrickFrames);
+            map.addObstacle(prizeBrick);
+            return prizeBrick;
+        } else if (currentPixel == coinBrickColor) {
+            Prize prize = revealed ? null : new Coin(xLocation, yLocation, this.coin, 10);
+            Brick brick = new CoinBrick(xLocation, yLocation, this.oneCoinBrick, prize);
+            if (revealed) {
+                brick.setEmpty(true);
+                brick.setBreakable(true);
+            }
+            map.addObstacle(brick);
+            return brick;
+        } else if (currentPixel == multiCoinBrickColor) {
+            Prize prize = new Coin(xLocation, yLocation, this.coin, 10);
+            Brick brick = new MultiCoinBrick(xLocation, yLocation, this.fiveCoinBrick, prize);
+            map.addObstacle(brick);
+            return brick;
+        } else if (currentPixel == smallPipeColor) {
+            if (addTerrain(map, EntityKind.SMALL_PIPE, xLocation, yLocation)) {
+                return null;
+            }
+            Brick groundPipe = new SmallPipe(xLocation, yLocation, this.smallPipe);
+            map.addGroundBrick(groundPipe);
+            return groundPipe;
+        } else if (currentPixel == groundBrickColor) {
+            if (addTerrain(map, EntityKind.GROUND_BRICK, xLocation, yLocation)) {
+                return null;
+            }
+            Brick brick = new GroundBrick(xLocation, yLocation, this.groundBrick);
+            map.addGroundBrick(brick);
+            return brick;
+        } else if (currentPixel == pipeColor) {
+            if (addTerrain(map, EntityKind.PIPE, xLocation, yLocation)) {
+                return null;
+            }
+            Obstacle groundPipe = new Pipe(xLocation, yLocation, this.pipe);
+            map.addGroundBrick(groundPipe);
+            return groundPipe;
+        } else if (currentPixel == crossoverColor) {
+            Obstacle crossoverTunnel = new CrossoverTunnel(xLocation, yLocation, this.pipe);
+            map.addGroundBrick(crossoverTunnel);
+            return crossoverTunnel;
+        } else if (currentPixel == endColor) {
+            Flag endPoint = new Flag(xLocation + 24, yLocation, this.endFlag);
+            map.setEndPoint(endPoint);
+            return endPoint;
+        } else if (currentPixel == castleColor) {
+            Castle castle = new Castle(xLocation, yLocation, this.castle);
+            map.setCastle(castle);
+            return castle;
+        } else if (currentPixel == goombaColor) {
+            Goomba enemy = new Goomba(xLocation, yLocation, this.goombaLeft);
+            enemy.setFrames(goombaFrames);
+            map.addEnemy(enemy);
+            return enemy;
+        } else if (currentPixel == koopaColor) {
+            KoopaTroopa enemy = new KoopaTroopa(xLocation, yLocation, this.koopaLeft);
+            enemy.setRightImage(koopaRight);
+            enemy.setShell(this.shell);
+            map.addEnemy(enemy);
+            return enemy;
+        } else if (currentPixel == spinyColor) {
+            Spiny enemy = new Spiny(xLocation, yLocation, this.spinyLeft);
+            enemy.setRightImage(spinyRight);
+            map.addEnemy(enemy);
+            return enemy;
+        } else if (currentPixel == piranhaColor) {
+            Piranha enemy = new Piranha(xLocation + 22, yLocation, this.piranhaClose);
+            enemy.setFrames(piranhaFrames);
+            map.addEnemy(enemy);
+            return enemy;
+        } else if (currentPixel == bossColor) {
+            Bowser bowser = new Bowser(xLocation, yLocation, this.boss);
+            bowser.setLeftFrames(imageLoader.getBossLeftFrames());
+            bowser.setRightFrames(imageLoader.getBossRightFrames());
+            bowser.setHero(this.hero);
+            map.setBowser(bowser);
+            map.addEnemy(bowser);
+            return bowser;
+        } else {
+            setHero(map, heroColor, currentPixel, xLocation, yLocation);
+            return null;
+        }
+    }
+
+    public MapStreamer getStreamer() {
+        return streamer;
+    }
+
     private Prize generateRandomPrize(double x, double y) {
         Prize generated;
-        int random = (int) (Math.random() * 12);
+        int random = GameSession.current().getRandom().nextInt(12);
 
         if (random == 0 || random == 1) {
             generated = new SuperMushroom(x, y, this.superMushroom);
@@ -323,7 +402,7 @@ public class MapCreator {
 
     private Prize generateRandomPrizeForCrossover(double x, double y) {
         Prize generated;
-        int random = (int) (Math.random() * 12);
+        int random = GameSession.current().getRandom().nextInt(12);
 
         if (random == 0) {
             generated = new SuperMushroom(x, y, this.superMushroom);
@@ -337,15 +416,6 @@ public class MapCreator {
         return generated;
     }
 
-    private void updateImageLoader(int heroType) {
-        imageLoader.setHeroType(heroType);
-        imageLoader = ImageLoader.getInstance();
-    }
-
-    private void setHeroType() {
-        this.heroType = this.hero.getType();
-    }
-
     public void setHero(Hero hero) {
         this.hero = hero;
     }
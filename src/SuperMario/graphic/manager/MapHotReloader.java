@@ -0,0 +1,93 @@
+package SuperMario.graphic.manager;
+
+import SuperMario.input.ImageLoader;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class MapHotReloader implements Runnable {
+
+    // editors save in several writes, wait for them to settle before decoding
+    private static final long SETTLE_MILLIS = 100;
+
+    private final Path directory;
+    private final WatchService watchService;
+    private final ConcurrentHashMap<String, Reload> pending = new ConcurrentHashMap<>();
+
+    public MapHotReloader(Path directory) throws IOException {
+        this.directory = directory;
+        this.watchService = directory.getFileSystem().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        Thread thread = new Thread(this, "map-hot-reload");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Thread.sleep(SETTLE_MILLIS);
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() != StandardWatchEventKinds.OVERFLOW) {
+                        reload(event.context().toString());
+                    }
+                }
+                if (!key.reset()) {
+                    // the directory is gone, there is nothing left to watch
+                    return;
+                }
+            }
+        } catch (InterruptedException ignored) {
+        }
+    }
+
+    public Reload poll(String file) {
+        return pending.remove(file);
+    }
+
+    private void reload(String file) {
+        if (!file.endsWith(".png")) {
+            return;
+        }
+
+        BufferedImage image;
+        try {
+            image = ImageIO.read(directory.resolve(file).toFile());
+        } catch (IOException e) {
+            image = null;
+        }
+        if (image == null) {
+            // a half written file, the write that completes it sends another event
+            return;
+        }
+
+        BufferedImage previous = ImageLoader.getInstance().replaceMapImage("/maps/" + file, image);
+        // a save that lands before the game thread got to the last one keeps the oldest image to diff against
+        pending.merge(file, new Reload(previous, image), (old, latest) -> new Reload(old.previous, latest.image));
+    }
+
+    public static class Reload {
+
+        private final BufferedImage previous;
+        private final BufferedImage image;
+
+        private Reload(BufferedImage previous, BufferedImage image) {
+            this.previous = previous;
+            this.image = image;
+        }
+
+        public BufferedImage getPrevious() {
+            return previous;
+        }
+
+        public BufferedImage getImage() {
+            return image;
+        }
+    }
+}
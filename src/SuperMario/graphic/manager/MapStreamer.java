@@ -0,0 +1,490 @@
+package SuperMario.graphic.manager;
+
+import SuperMario.input.ImageLoader;
+import SuperMario.model.EntityKind;
+import SuperMario.model.EntityStore;
+import SuperMario.model.GameObject;
+import SuperMario.model.map.Map;
+import SuperMario.model.map.TileMap;
+import SuperMario.model.obstacle.Brick;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class MapStreamer {
+
+    public static final int CHUNK_WIDTH = 16;
+    public static final int MIN_CHUNKS = 4;
+    private static final int TILE = 48;
+    private static final int CHUNK_PIXELS = CHUNK_WIDTH * TILE;
+
+    private final MapCreator creator;
+    private final Map map;
+    private final String path;
+    private final int width, height;
+    private final boolean streamed;
+    private final Chunk[] loaded;
+    private final boolean[] requested;
+    private final long[][] removed;
+    private final long[][] revealed;
+    private final HashMap<Integer, double[]> enemyStates = new HashMap<>();
+    // enemies that walked into another loaded chunk before the one they spawned in was released, by spawn cell
+    private final HashMap<Integer, GameObject> roaming = new HashMap<>();
+    private final ConcurrentLinkedQueue<Chunk> decoded = new ConcurrentLinkedQueue<>();
+    private final ExecutorService loader;
+    // bumped by a hot reload, chunks decoded from an older image are thrown away
+    private volatile int generation;
+
+    public MapStreamer(MapCreator creator, Map map, String path, int width, int height, boolean streamed) {
+        this.creator = creator;
+        this.map = map;
+        this.path = path;
+        this.width = width;
+        this.height = height;
+        this.streamed = streamed;
+
+        int chunkCount = (width + CHUNK_WIDTH - 1) / CHUNK_WIDTH;
+        int words = (CHUNK_WIDTH * height + 63) / 64;
+        this.loaded = new Chunk[chunkCount];
+        this.requested = new boolean[chunkCount];
+        this.removed = new long[chunkCount][words];
+        this.revealed = new long[chunkCount][words];
+
+        this.loader = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "map-streamer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        if (!streamed) {
+            loadAll();
+        }
+    }
+
+    public void update(double left, double right) {
+        if (!streamed) {
+            return;
+        }
+
+        for (Chunk chunk = decoded.poll(); chunk != null; chunk = decoded.poll()) {
+            if (chunk.generation != generation) {
+                requested[chunk.index] = false;
+            } else if (requested[chunk.index] && loaded[chunk.index] == null) {
+                instantiate(chunk);
+            }
+        }
+
+        int first = Math.max(0, (int) Math.floor(left / CHUNK_PIXELS) - 1);
+        int last = Math.min(loaded.length - 1, (int) Math.floor(right / CHUNK_PIXELS) + 1);
+        int visibleFirst = Math.max(0, (int) Math.floor(left / CHUNK_PIXELS));
+        int visibleLast = Math.min(loaded.length - 1, (int) Math.floor(right / CHUNK_PIXELS));
+
+        for (int i = 0; i < loaded.length; i++) {
+            if (i < first - 1 || i > last + 1) {
+                if (loaded[i] != null) {
+                    release(loaded[i]);
+                }
+                requested[i] = false;
+            } else if (loaded[i] == null && i >= visibleFirst && i <= visibleLast) {
+                // the camera got here before the loader did, e.g. after a reset
+                requested[i] = true;
+                instantiate(decode(i));
+            } else if (loaded[i] == null && !requested[i] && i >= first && i <= last) {
+                requested[i] = true;
+                int index = i;
+                loader.execute(() -> decoded.add(decode(index)));
+            }
+        }
+    }
+
+    public void shutdown() {
+        loader.shutdownNow();
+        decoded.clear();
+    }
+
+    public void patch(BufferedImage previous, BufferedImage next) {
+        int[] before = previous.getRGB(0, 0, width, height, null, 0, width);
+        int[] after = next.getRGB(0, 0, width, height, null, 0, width);
+        generation++;
+
+        for (int column = 0; column < width; column++) {
+            for (int row = 0; row < height; row++) {
+                int pixel = after[row * width + column];
+                if (pixel == before[row * width + column]) {
+                    continue;
+                }
+                // the hero, flag, castle, checkpoint and boss are placed once per level, they wait for a reload
+                if (!creator.isGlobalTile(pixel) && !creator.isGlobalTile(before[row * width + column])) {
+                    patchCell(column, row, pixel);
+                }
+            }
+        }
+    }
+
+    private void patchCell(int column, int row, int currentPixel) {
+        int index = column / CHUNK_WIDTH;
+        int cell = (column % CHUNK_WIDTH) * height + row;
+        // whatever the player did to the old tile does not apply to the new one
+        clear(removed[index], cell);
+        clear(revealed[index], cell);
+        enemyStates.remove(index * CHUNK_WIDTH * height + cell);
+        GameObject roamer = roaming.remove(index * CHUNK_WIDTH * height + cell);
+        if (roamer != null && EntityStore.getInstance().getOwner(roamer.getId()) == roamer) {
+            map.removeTile(roamer);
+        }
+
+        TileMap tileMap = map.getTileMap();
+        if (tileMap != null) {
+            tileMap.clear(column, row);
+        }
+
+        Chunk chunk = loaded[index];
+        if (chunk == null) {
+            // it is decoded from the new image when the camera gets there
+            return;
+        }
+        GameObject previous = chunk.untrack(cell);
+        if (previous != null && EntityStore.getInstance().getOwner(previous.getId()) == previous) {
+            map.removeTile(previous);
+        }
+        GameObject object = creator.createTile(map, currentPixel, column * TILE, row * TILE, false);
+        if (object != null) {
+            chunk.track(object, cell);
+        }
+    }
+
+    public void writeDelta(DataOutput out) throws IOException {
+        EntityStore store = EntityStore.getInstance();
+        long[][] removedCells = new long[loaded.length][];
+        long[][] revealedCells = new long[loaded.length][];
+        HashMap<Integer, double[]> enemies = new HashMap<>(enemyStates);
+
+        for (int i = 0; i < loaded.length; i++) {
+            removedCells[i] = removed[i].clone();
+            revealedCells[i] = revealed[i].clone();
+
+            Chunk chunk = loaded[i];
+            if (chunk == null) {
+                continue;
+            }
+            for (int j = 0; j < chunk.count; j++) {
+                GameObject object = chunk.objects[j];
+                int cell = chunk.cells[j];
+                if (store.getOwner(object.getId()) != object) {
+                    set(removedCells[i], cell);
+                } else if (EntityKind.isEnemy(object.getKind())) {
+                    enemies.put(i * CHUNK_WIDTH * height + cell, captureEnemy(object));
+                } else if (isEmptied(object)) {
+                    set(revealedCells[i], cell);
+                }
+            }
+        }
+        for (java.util.Map.Entry<Integer, GameObject> entry : roaming.entrySet()) {
+            int key = entry.getKey();
+            GameObject object = entry.getValue();
+            if (store.getOwner(object.getId()) != object) {
+                set(removedCells[key / (CHUNK_WIDTH * height)], key % (CHUNK_WIDTH * height));
+            } else {
+                enemies.put(key, captureEnemy(object));
+            }
+        }
+
+        out.writeInt(width);
+        out.writeInt(height);
+        for (int i = 0; i < loaded.length; i++) {
+            for (int word = 0; word < removedCells[i].length; word++) {
+                out.writeLong(removedCells[i][word]);
+                out.writeLong(revealedCells[i][word]);
+            }
+        }
+
+        out.writeInt(enemies.size());
+        for (java.util.Map.Entry<Integer, double[]> entry : enemies.entrySet()) {
+            out.writeInt(entry.getKey());
+            for (double value : entry.getValue()) {
+                out.writeDouble(value);
+            }
+        }
+    }
+
+    public Delta readDelta(DataInput in) throws IOException {
+        if (in.readInt() != width || in.readInt() != height) {
+            throw new IOException("Snapshot does not match the size of " + path);
+        }
+
+        // nothing is applied here, a stream that breaks off halfway leaves the level as it was
+        long[][] removedCells = new long[loaded.length][removed[0].length];
+        long[][] revealedCells = new long[loaded.length][revealed[0].length];
+        for (int i = 0; i < loaded.length; i++) {
+            for (int word = 0; word < removedCells[i].length; word++) {
+                removedCells[i][word] = in.readLong();
+                revealedCells[i][word] = in.readLong();
+            }
+        }
+
+        HashMap<Integer, double[]> enemies = new HashMap<>();
+        int enemyCount = in.readInt();
+        for (int i = 0; i < enemyCount; i++) {
+            int cell = in.readInt();
+            double[] state = new double[7];
+            for (int j = 0; j < state.length; j++) {
+                state[j] = in.readDouble();
+            }
+            enemies.put(cell, state);
+        }
+        return new Delta(removedCells, revealedCells, enemies);
+    }
+
+    public void applyDelta(Delta delta) {
+        for (int i = 0; i < loaded.length; i++) {
+            System.arraycopy(delta.removed[i], 0, removed[i], 0, removed[i].length);
+            System.arraycopy(delta.revealed[i], 0, revealed[i], 0, revealed[i].length);
+        }
+        enemyStates.clear();
+        enemyStates.putAll(delta.enemyStates);
+
+        for (int i = 0; i < loaded.length; i++) {
+            if (loaded[i] != null) {
+                drop(loaded[i]);
+            }
+            requested[i] = false;
+        }
+        for (GameObject roamer : roaming.values()) {
+            if (EntityStore.getInstance().getOwner(roamer.getId()) == roamer) {
+                map.removeTile(roamer);
+            }
+        }
+        roaming.clear();
+        decoded.clear();
+
+        if (!streamed) {
+            loadAll();
+        }
+    }
+
+    private void loadAll() {
+        for (int i = 0; i < loaded.length; i++) {
+            requested[i] = true;
+            instantiate(decode(i));
+        }
+    }
+
+    private Chunk decode(int index) {
+        int x = index * CHUNK_WIDTH;
+        int columns = Math.min(CHUNK_WIDTH, width - x);
+        Chunk chunk = new Chunk(index, columns);
+        chunk.generation = generation;
+        BufferedImage image = ImageLoader.getInstance().loadMapImage(path);
+
+        if (image != null) {
+            image.getRGB(x, 0, columns, height, chunk.pixels, 0, columns);
+        }
+        return chunk;
+    }
+
+    private void instantiate(Chunk chunk) {
+        int index = chunk.index;
+        for (int column = 0; column < chunk.columns; column++) {
+            for (int row = 0; row < height; row++) {
+                int cell = column * height + row;
+                int currentPixel = chunk.pixels[row * chunk.columns + column];
+
+                if (isSet(removed[index], cell) || creator.isGlobalTile(currentPixel)) {
+                    continue;
+                }
+                GameObject roamer = roaming.remove(index * CHUNK_WIDTH * height + cell);
+                if (roamer != null) {
+                    // it never left the map, its chunk takes it back instead of spawning another one
+                    if (EntityStore.getInstance().getOwner(roamer.getId()) == roamer) {
+                        chunk.track(roamer, cell);
+                    } else {
+                        set(removed[index], cell);
+                    }
+                    continue;
+                }
+
+                int xLocation = (index * CHUNK_WIDTH + column) * TILE;
+                GameObject object = creator.createTile(map, currentPixel, xLocation, row * TILE, isSet(revealed[index], cell));
+                if (object != null) {
+                    double[] state = enemyStates.remove(index * CHUNK_WIDTH * height + cell);
+                    if (state != null) {
+                        restoreEnemy(object, state);
+                    }
+                    chunk.track(object, cell);
+                }
+            }
+        }
+        chunk.pixels = null;
+        loaded[index] = chunk;
+    }
+
+    private void release(Chunk chunk) {
+        EntityStore store = EntityStore.getInstance();
+        long[] removedCells = removed[chunk.index];
+        long[] revealedCells = revealed[chunk.index];
+
+        for (int i = 0; i < chunk.count; i++) {
+            GameObject object = chunk.objects[i];
+            int cell = chunk.cells[i];
+
+            int key = chunk.index * CHUNK_WIDTH * height + cell;
+
+            // recorded the same way writeDelta records a loaded chunk, so a save and a revisit agree
+            if (store.getOwner(object.getId()) != object) {
+                set(removedCells, cell);
+            } else if (EntityKind.isEnemy(object.getKind()) && isCarriedOff(chunk, object)) {
+                // walked into a chunk that stays loaded, it keeps moving until its own chunk loads again
+                roaming.put(key, object);
+            } else if (EntityKind.isEnemy(object.getKind())) {
+                enemyStates.put(key, captureEnemy(object));
+                map.removeTile(object);
+            } else {
+                if (isEmptied(object)) {
+                    set(revealedCells, cell);
+                }
+                map.removeTile(object);
+            }
+        }
+
+        // roamers that ended up here leave with this chunk, recorded under the cell they spawned in
+        for (Iterator<java.util.Map.Entry<Integer, GameObject>> iterator = roaming.entrySet().iterator(); iterator.hasNext(); ) {
+            java.util.Map.Entry<Integer, GameObject> entry = iterator.next();
+            GameObject roamer = entry.getValue();
+            if (chunkOf(roamer) != chunk.index) {
+                continue;
+            }
+            iterator.remove();
+            int key = entry.getKey();
+            if (store.getOwner(roamer.getId()) != roamer) {
+                set(removed[key / (CHUNK_WIDTH * height)], key % (CHUNK_WIDTH * height));
+            } else {
+                enemyStates.put(key, captureEnemy(roamer));
+                map.removeTile(roamer);
+            }
+        }
+
+        releaseProxies(chunk);
+        loaded[chunk.index] = null;
+    }
+
+    private boolean isCarriedOff(Chunk chunk, GameObject enemy) {
+        int at = chunkOf(enemy);
+        return at != chunk.index && at >= 0 && at < loaded.length && loaded[at] != null;
+    }
+
+    private static int chunkOf(GameObject object) {
+        return (int) Math.floor(object.getX() / CHUNK_PIXELS);
+    }
+
+    private void drop(Chunk chunk) {
+        for (int i = 0; i < chunk.count; i++) {
+            map.removeTile(chunk.objects[i]);
+        }
+        releaseProxies(chunk);
+        loaded[chunk.index] = null;
+    }
+
+    private void releaseProxies(Chunk chunk) {
+        // the terrain stays in the grid, only the obstacles queries made for it go
+        TileMap tileMap = map.getTileMap();
+        if (tileMap != null) {
+            int first = chunk.index * CHUNK_WIDTH;
+            tileMap.release(first, first + chunk.columns - 1);
+        }
+    }
+
+    private boolean isEmptied(GameObject object) {
+        int kind = object.getKind();
+        return (kind == EntityKind.SURPRISE_BRICK || kind == EntityKind.MULTI_COIN_BRICK || kind == EntityKind.COIN_BRICK)
+                && ((Brick) object).isEmpty();
+    }
+
+    private double[] captureEnemy(GameObject enemy) {
+        return new double[]{enemy.getX(), enemy.getY(), enemy.getVelX(), enemy.getVelY(),
+                enemy.isFalling() ? 1 : 0, enemy.isJumping() ? 1 : 0, enemy.isToRight() ? 1 : 0};
+    }
+
+    private void restoreEnemy(GameObject enemy, double[] state) {
+        enemy.setLocation(state[0], state[1]);
+        enemy.setVelX(state[2]);
+        enemy.setVelY(state[3]);
+        enemy.setFalling(state[4] != 0);
+        enemy.setJumping(state[5] != 0);
+        enemy.setToRight(state[6] != 0);
+    }
+
+    private static boolean isSet(long[] bits, int cell) {
+        return (bits[cell >> 6] & (1L << cell)) != 0;
+    }
+
+    private static void set(long[] bits, int cell) {
+        bits[cell >> 6] |= 1L << cell;
+    }
+
+    private static void clear(long[] bits, int cell) {
+        bits[cell >> 6] &= ~(1L << cell);
+    }
+
+    public static final class Delta {
+
+        private final long[][] removed;
+        private final long[][] revealed;
+        private final HashMap<Integer, double[]> enemyStates;
+
+        private Delta(long[][] removed, long[][] revealed, HashMap<Integer, double[]> enemyStates) {
+            this.removed = removed;
+            this.revealed = revealed;
+            this.enemyStates = enemyStates;
+        }
+    }
+
+    private class Chunk {
+
+        private final int index;
+        private final int columns;
+        private int[] pixels;
+        private GameObject[] objects = new GameObject[32];
+        private int[] cells = new int[32];
+        private int count;
+        private int generation;
+
+        private Chunk(int index, int columns) {
+            this.index = index;
+            this.columns = columns;
+            this.pixels = new int[columns * height];
+        }
+
+        private void track(GameObject object, int cell) {
+            if (count == objects.length) {
+                objects = Arrays.copyOf(objects, count * 2);
+                cells = Arrays.copyOf(cells, count * 2);
+            }
+            objects[count] = object;
+            cells[count] = cell;
+            count++;
+        }
+
+        private GameObject untrack(int cell) {
+            for (int i = 0; i < count; i++) {
+                if (cells[i] == cell) {
+                    GameObject object = objects[i];
+                    count--;
+                    objects[i] = objects[count];
+                    cells[i] = cells[count];
+                    objects[count] = null;
+                    return object;
+                }
+            }
+            return null;
+        }
+    }
+}
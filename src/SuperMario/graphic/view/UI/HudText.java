@@ -0,0 +1,91 @@
+package SuperMario.graphic.view.UI;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.function.IntFunction;
+
+public class HudText {
+
+    private static final Graphics2D MEASURE = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+
+    private final Font font;
+    private final Color color;
+    private final IntFunction<String> format;
+    private final FontMetrics metrics;
+    // room for glyphs of the mario font that overhang their advance
+    private final int padding;
+
+    private BufferedImage image;
+    private String text;
+    private int key;
+    private boolean keyed;
+
+    public HudText(Font font, Color color) {
+        this(font, color, String::valueOf);
+    }
+
+    public HudText(Font font, Color color, IntFunction<String> format) {
+        this.font = font;
+        this.color = color;
+        this.format = format;
+        synchronized (MEASURE) {
+            this.metrics = MEASURE.getFontMetrics(font);
+        }
+        this.padding = metrics.getDescent();
+    }
+
+    public void draw(Graphics2D g2, int value, int x, int baseline) {
+        update(value);
+        g2.drawImage(image, x - padding, baseline - metrics.getAscent() - padding, null);
+    }
+
+    public void draw(Graphics2D g2, String value, int x, int baseline) {
+        update(value);
+        g2.drawImage(image, x - padding, baseline - metrics.getAscent() - padding, null);
+    }
+
+    public void drawCentered(Graphics2D g2, int value, int areaWidth, int baseline) {
+        update(value);
+        draw(g2, value, (areaWidth - getTextWidth()) / 2, baseline);
+    }
+
+    public void drawCentered(Graphics2D g2, String value, int areaWidth, int baseline) {
+        update(value);
+        draw(g2, value, (areaWidth - getTextWidth()) / 2, baseline);
+    }
+
+    public int getTextWidth() {
+        return image.getWidth() - 2 * padding;
+    }
+
+    public int getLineHeight() {
+        return metrics.getHeight();
+    }
+
+    private void update(int value) {
+        if (image == null || !keyed || key != value) {
+            key = value;
+            render(format.apply(value));
+            keyed = true;
+        }
+    }
+
+    private void update(String value) {
+        if (image == null || keyed || !value.equals(text)) {
+            render(value);
+            keyed = false;
+        }
+    }
+
+    private void render(String value) {
+        text = value;
+        int width = Math.max(1, metrics.stringWidth(value)) + 2 * padding;
+        int height = metrics.getAscent() + metrics.getDescent() + 2 * padding;
+        image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = image.createGraphics();
+        g2.setFont(font);
+        g2.setColor(color);
+        g2.drawString(value, padding, metrics.getAscent() + padding);
+        g2.dispose();
+    }
+}
@@ -8,19 +8,32 @@ import SuperMario.input.ImageLoader;
 import SuperMario.logic.GameEngine;
 import SuperMario.model.hero.HeroType;
 import SuperMario.model.map.HitPoints;
+import SuperMario.repository.SaveIndexEntry;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.text.SimpleDateFormat;
+import java.util.Date;
 
 public class UIManager extends JPanel {
 
+    private static final long serialVersionUID = 1L;
+
     private final GameEngine engine;
-    private final Font gameFont;
+    private final HudText points, lives, coins, time, world;
+    private final HudText storeCoins, buy, saveStatus, victory, victoryNextLine, finalScore;
+    private final HudText[] prices = new HudText[HeroType.COUNT];
+    private final HudText[] saveSlots = new HudText[3];
+    // last gameplay frame, shown under the pause and checkpoint overlays
+    private BufferedImage frozenFrame;
+    private volatile boolean isFrozenFrameValid;
     private final BufferedImage startScreenImage, aboutScreenImage, helpScreenImage, checkPointScreen, gameOverScreen, storeScreenImage, loadGameScreen, pauseScreen;
     private final BufferedImage heartIcon;
     private final BufferedImage coinIcon;
     private final BufferedImage selectIcon;
+    private static final String[] HERO_NAMES = {"MARIO", "LUIGI", "PEACH", "ROSALINA", "TOAD"};
+    private static final SimpleDateFormat SAVE_TIME_FORMAT = new SimpleDateFormat("MM/dd HH:mm");
 
     public UIManager(GameEngine engine, int width, int height) {
         setPreferredSize(new Dimension(width, height));
@@ -42,13 +55,38 @@ public class UIManager extends JPanel {
         this.pauseScreen = loader.getPauseScreen();
         this.checkPointScreen = loader.getCheckPoint();
 
-        this.gameFont = new FontLoader().getFont();
+        Font gameFont = new FontLoader().getFont();
+        Font small = gameFont.deriveFont(20f);
+        Font medium = gameFont.deriveFont(25f);
+        Font large = gameFont.deriveFont(30f);
+
+        // each text is rasterized once per value, steady frames only blit the cached images
+        this.points = new HudText(medium, Color.WHITE, value -> "Points:" + value);
+        this.lives = new HudText(large, Color.WHITE);
+        this.coins = new HudText(large, Color.WHITE);
+        this.time = new HudText(medium, Color.WHITE, value -> "TIME:" + value);
+        this.world = new HudText(medium, Color.WHITE,
+                value -> "World:" + (value == MapSelection.BOSS_FIGHT.getWorldNumber() ? "BOSS!" : String.valueOf(value + 1)));
+        this.storeCoins = new HudText(large, Color.WHITE);
+        this.buy = new HudText(small, Color.WHITE);
+        for (int type = 0; type < prices.length; type++) {
+            prices[type] = new HudText(small, Color.WHITE);
+        }
+        this.saveStatus = new HudText(medium, Color.WHITE);
+        this.victory = new HudText(gameFont.deriveFont(40f), Color.WHITE);
+        this.victoryNextLine = new HudText(gameFont.deriveFont(40f), Color.WHITE);
+        this.finalScore = new HudText(gameFont.deriveFont(50f), new Color(238, 28, 46), value -> "Score:" + value);
+        Font slotFont = gameFont.deriveFont(14f);
+        for (int slot = 0; slot < saveSlots.length; slot++) {
+            saveSlots[slot] = new HudText(slotFont, Color.WHITE);
+        }
     }
 
     @Override
     public void paintComponent(Graphics g) {
         super.paintComponent(g);
 
+        long appliedEvents = engine.getLatencyTracer().frameStarted();
         Graphics2D g2 = (Graphics2D) g.create();
         GameState gameState = engine.getGameState();
 
@@ -65,22 +103,13 @@ public class UIManager extends JPanel {
         } else if (gameState == GameState.GAME_OVER) {
             drawGameOverScreen(g2);
         } else {
-            Point camLocation = engine.getCameraLocation();
-            g2.translate(-camLocation.x, -camLocation.y);
-            engine.drawMap(g2);
-            g2.translate(camLocation.x, camLocation.y);
-
-            drawPoints(g2);
-            drawRemainingLives(g2);
-            drawAcquiredCoins(g2);
-            drawRemainingTime(g2);
-            drawWorldNumber(g2);
-
-            if (engine.getUserData().getWorldNumber() == MapSelection.BOSS_FIGHT.getWorldNumber()) {
-                drawHitPoint(g2);
+            if (gameState == GameState.PAUSED || gameState == GameState.CHECKPOINT) {
+                // the world does not move under these overlays, draw it once and blit it after that
+                g2.drawImage(getFrozenFrame(), 0, 0, null);
+            } else {
+                drawGameplay(g2);
             }
 
-
             if (gameState == GameState.CROSSOVER) {
                 drawCrossoverBackground(g2);
                 Point crossCamLocation = engine.getCrossoverCameraLocation();
@@ -99,17 +128,47 @@ public class UIManager extends JPanel {
             }
         }
         g2.dispose();
+        // flush pending drawing so the frame is on screen when it is stamped
+        Toolkit.getDefaultToolkit().sync();
+        engine.getLatencyTracer().framePresented(appliedEvents, System.nanoTime());
+    }
+
+    private void drawGameplay(Graphics2D g2) {
+        Point camLocation = engine.getCameraLocation();
+        g2.translate(-camLocation.x, -camLocation.y);
+        engine.drawMap(g2);
+        g2.translate(camLocation.x, camLocation.y);
+
+        drawPoints(g2);
+        drawRemainingLives(g2);
+        drawAcquiredCoins(g2);
+        drawRemainingTime(g2);
+        drawWorldNumber(g2);
+
+        if (engine.getUserData().getWorldNumber() == MapSelection.BOSS_FIGHT.getWorldNumber()) {
+            drawHitPoint(g2);
+        }
+    }
+
+    private BufferedImage getFrozenFrame() {
+        if (frozenFrame == null || frozenFrame.getWidth() != getWidth() || frozenFrame.getHeight() != getHeight()) {
+            frozenFrame = getGraphicsConfiguration().createCompatibleImage(getWidth(), getHeight());
+            isFrozenFrameValid = false;
+        }
+        if (!isFrozenFrameValid) {
+            Graphics2D g2 = frozenFrame.createGraphics();
+            g2.setColor(getBackground());
+            g2.fillRect(0, 0, getWidth(), getHeight());
+            drawGameplay(g2);
+            g2.dispose();
+            isFrozenFrameValid = true;
+        }
+        return frozenFrame;
     }
 
     private void drawVictoryScreen(Graphics2D g2) {
-        g2.setFont(gameFont.deriveFont(40f));
-        g2.setColor(Color.WHITE);
-        String displayedStr = "YOU WON!";
-        String nextLine = "Press enter to continue.";
-        int stringLength = g2.getFontMetrics().stringWidth(displayedStr);
-        int nextLineLength = g2.getFontMetrics().stringWidth(nextLine);
-        g2.drawString(displayedStr, (getWidth() - stringLength) / 2, 300);
-        g2.drawString(nextLine, (getWidth() - nextLineLength) / 2, 400);
+        victory.drawCentered(g2, "YOU WON!", getWidth(), 300);
+        victoryNextLine.drawCentered(g2, "Press enter to continue.", getWidth(), 400);
     }
 
     private void drawCheckPointScreen(Graphics2D g2) {
@@ -128,13 +187,7 @@ public class UIManager extends JPanel {
 
     private void drawGameOverScreen(Graphics2D g2) {
         g2.drawImage(gameOverScreen, 0, 0, null);
-        g2.setFont(gameFont.deriveFont(50f));
-        g2.setColor(new Color(238, 28, 46));
-        String acquiredPoints;
-        acquiredPoints = "Score:" + engine.getScore();
-        int stringLength = g2.getFontMetrics().stringWidth(acquiredPoints);
-        int stringHeight = g2.getFontMetrics().getHeight();
-        g2.drawString(acquiredPoints, (getWidth() - stringLength) / 2, getHeight() - stringHeight * 4);
+        finalScore.drawCentered(g2, engine.getScore(), getWidth(), getHeight() - finalScore.getLineHeight() * 4);
     }
 
     private void drawStoreScreen(Graphics2D g2) {
@@ -143,57 +196,41 @@ public class UIManager extends JPanel {
         g2.drawImage(selectIcon, column * 225 + 70, 255, null);
 
         //Coins
-        g2.setFont(gameFont.deriveFont(30f));
-        g2.setColor(Color.WHITE);
-        String coins = "" + engine.getCoins();
-        g2.drawString(coins, 85, 70);
+        storeCoins.draw(g2, engine.getCoins(), 85, 70);
 
         //Price:
 
         //Luigi
-        String buy = "Buy for";
         if (!engine.getUserData().getTypesOwned()[HeroType.LUIGI]) {
-            setFontAndColor(g2);
-            g2.drawString(buy, 320, 500);
-
-            setFontAndColor(g2);
-            g2.drawString("15", 370, 535);
+            buy.draw(g2, "Buy for", 320, 500);
+            prices[HeroType.LUIGI].draw(g2, 15, 370, 535);
         }
         //Princess Peach
         if (!engine.getUserData().getTypesOwned()[HeroType.PRINCESS_PEACH]) {
-            setFontAndColor(g2);
-            g2.drawString(buy, 560, 500);
-
-            setFontAndColor(g2);
-            g2.drawString("40", 610, 535);
+            buy.draw(g2, "Buy for", 560, 500);
+            prices[HeroType.PRINCESS_PEACH].draw(g2, 40, 610, 535);
         }
         //Rosalina
         if (!engine.getUserData().getTypesOwned()[HeroType.ROSALINA]) {
-            setFontAndColor(g2);
-            g2.drawString(buy, 780, 500);
-
-            setFontAndColor(g2);
-            g2.drawString("30", 830, 535);
+            buy.draw(g2, "Buy for", 780, 500);
+            prices[HeroType.ROSALINA].draw(g2, 30, 830, 535);
         }
         //Toad
         if (!engine.getUserData().getTypesOwned()[HeroType.TOAD]) {
-            setFontAndColor(g2);
-            g2.drawString(buy, 1000, 500);
-
-            setFontAndColor(g2);
-            g2.drawString("35", 1050, 535);
+            buy.draw(g2, "Buy for", 1000, 500);
+            prices[HeroType.TOAD].draw(g2, 35, 1050, 535);
         }
     }
 
-    private void setFontAndColor(Graphics2D g2) {
-        g2.setFont(gameFont.deriveFont(20f));
-        g2.setColor(Color.WHITE);
-    }
-
     private void drawPauseScreen(Graphics2D g2) {
         int row = engine.getPauseScreenSelection().getLineNumber();
         g2.drawImage(pauseScreen, 0, 0, null);
         g2.drawImage(selectIcon, 285, row * 95 + 195, null);
+
+        String status = engine.getSaveStatus();
+        if (status != null) {
+            saveStatus.draw(g2, status, 50, 650);
+        }
     }
 
     private void drawCrossoverBackground(Graphics2D g2) {
@@ -201,48 +238,25 @@ public class UIManager extends JPanel {
     }
 
     private void drawRemainingTime(Graphics2D g2) {
-        g2.setFont(gameFont.deriveFont(25f));
-        g2.setColor(Color.WHITE);
-        String displayedStr = "TIME:" + engine.getRemainingTime();
-        g2.drawString(displayedStr, 850, 50);
+        time.draw(g2, engine.getRemainingTime(), 850, 50);
     }
 
     private void drawAcquiredCoins(Graphics2D g2) {
-        g2.setFont(gameFont.deriveFont(30f));
-        g2.setColor(Color.WHITE);
-        String displayedStr;
-
-        displayedStr = "" + engine.getCoins();
-
         g2.drawImage(coinIcon, getWidth() - 115, 10, null);
-        g2.drawString(displayedStr, getWidth() - 65, 50);
+        coins.draw(g2, engine.getCoins(), getWidth() - 65, 50);
     }
 
     private void drawRemainingLives(Graphics2D g2) {
-        g2.setFont(gameFont.deriveFont(30f));
-        g2.setColor(Color.WHITE);
-        String displayedStr;
-
-        displayedStr = "" + engine.getRemainingLives();
         g2.drawImage(heartIcon, 30, 10, null);
-        g2.drawString(displayedStr, 80, 50);
+        lives.draw(g2, engine.getRemainingLives(), 80, 50);
     }
 
     private void drawWorldNumber(Graphics2D g2) {
-        g2.setFont(gameFont.deriveFont(25f));
-        g2.setColor(Color.WHITE);
-        String displayedStr;
-        String worldNum = engine.getUserData().getWorldNumber() == 6 ? "BOSS!" : String.valueOf(engine.getUserData().getWorldNumber() + 1);
-        displayedStr = "World:" + worldNum;
-        g2.drawString(displayedStr, 530, 50);
+        world.draw(g2, engine.getUserData().getWorldNumber(), 530, 50);
     }
 
     private void drawPoints(Graphics2D g2) {
-        g2.setFont(gameFont.deriveFont(25f));
-        g2.setColor(Color.WHITE);
-        String displayedStr;
-        displayedStr = "Points:" + engine.getScore();
-        g2.drawString(displayedStr, 200, 50);
+        points.draw(g2, engine.getScore(), 200, 50);
     }
 
     private void drawHitPoint(Graphics2D g2) {
@@ -261,9 +275,33 @@ public class UIManager extends JPanel {
         int row = engine.getLoadGameScreenSelection().getLineNumber();
         g2.drawImage(loadGameScreen, 0, 0, null);
         g2.drawImage(selectIcon, 450, row * 70 + 290, null);
+
+        for (int slot = 0; slot < 3; slot++) {
+            SaveIndexEntry summary = engine.getSaveSummary(slot);
+            String line = summary == null ? "EMPTY" : "WORLD " + summary.getWorldNumber() + "  "
+                    + HERO_NAMES[summary.getHeroType()] + "  " + summary.getPoints() + " PTS  "
+                    + summary.getCoins() + " COINS  " + SAVE_TIME_FORMAT.format(new Date(summary.getTimestamp()));
+            saveSlots[slot].drawCentered(g2, line, getWidth(), (slot + 1) * 70 + 352);
+        }
+
+        if (row > 0) {
+            BufferedImage thumbnail = engine.getSaveThumbnail(row - 1);
+            if (thumbnail != null) {
+                g2.drawImage(thumbnail, (getWidth() - thumbnail.getWidth()) / 2, 590, null);
+            }
+        }
+
+        String status = engine.getSaveStatus();
+        if (status != null) {
+            saveStatus.draw(g2, status, 50, 650);
+        }
     }
 
 
+    public void invalidateFrozenFrame() {
+        isFrozenFrameValid = false;
+    }
+
     public GameEngine getEngine() {
         return engine;
     }
@@ -0,0 +1,41 @@
+package SuperMario.graphic.view.animation;
+
+import SuperMario.logic.GameSession;
+
+import java.awt.image.BufferedImage;
+
+public class AnimationClock {
+
+    public static final int GOOMBA = 0;
+    public static final int PIRANHA = 1;
+    public static final int PRIZE_BRICK = 2;
+    public static final int LAVA = 3;
+    public static final int BOWSER = 4;
+    public static final int AXE = 5;
+    public static final int HERO_WALK = 6;
+    public static final int COUNT = 7;
+
+    // ticks a frame stays up, the old per-draw speeds converted as 60 / speed + 1
+    private static final int[] PERIODS = {13, 9, 13, 8, 7, 3, 4};
+
+    private final int[] counts = new int[COUNT];
+    // written by the game thread only, a draw that reads a stale step shows the previous frame
+    private final int[] steps = new int[COUNT];
+
+    public static AnimationClock getInstance() {
+        return GameSession.current().getAnimationClock();
+    }
+
+    public void advance() {
+        for (int group = 0; group < COUNT; group++) {
+            if (++counts[group] == PERIODS[group]) {
+                counts[group] = 0;
+                steps[group]++;
+            }
+        }
+    }
+
+    public BufferedImage getFrame(int group, int phase, BufferedImage[] frames) {
+        return frames[Math.floorMod(steps[group] + phase, frames.length)];
+    }
+}
@@ -0,0 +1,132 @@
+package SuperMario.graphic.view.animation;
+
+import SuperMario.input.ImageLoader;
+import SuperMario.logic.GameSession;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+public class ParticleSystem {
+
+    public static final int CAPACITY = 4096;
+
+    // indices into ImageLoader.getParticleSprites()
+    public static final int CHIP = 0;
+    public static final int SPARK = 1;
+    public static final int EMBER = 2;
+
+    private final float[] x = new float[CAPACITY];
+    private final float[] y = new float[CAPACITY];
+    private final float[] velX = new float[CAPACITY];
+    private final float[] velY = new float[CAPACITY];
+    private final float[] gravity = new float[CAPACITY];
+    private final short[] life = new short[CAPACITY];
+    private final byte[] sprites = new byte[CAPACITY];
+    // written by the game thread only, a frame drawn mid-update may show a particle one tick off
+    private int count;
+    private long dropped;
+    // its own generator, so effects never shift the session's seeded gameplay choices
+    private int seed = 0x2545F491;
+    private BufferedImage[] atlas;
+
+    public static ParticleSystem getInstance() {
+        return GameSession.current().getParticles();
+    }
+
+    public void emit(int sprite, double x, double y, double velX, double velY, double gravity, int life) {
+        if (count == CAPACITY) {
+            dropped++;
+            return;
+        }
+        int i = count;
+        this.x[i] = (float) x;
+        this.y[i] = (float) y;
+        this.velX[i] = (float) velX;
+        this.velY[i] = (float) velY;
+        this.gravity[i] = (float) gravity;
+        this.life[i] = (short) life;
+        this.sprites[i] = (byte) sprite;
+        count = i + 1;
+    }
+
+    public void emitBrickBreak(double x, double y, int size) {
+        // four chips from the corners, the top pair thrown higher
+        double half = size / 2.0;
+        emit(CHIP, x, y, -2, -8, 0.5, 60);
+        emit(CHIP, x + half, y, 2, -8, 0.5, 60);
+        emit(CHIP, x, y + half, -1.5, -5, 0.5, 60);
+        emit(CHIP, x + half, y + half, 1.5, -5, 0.5, 60);
+    }
+
+    public void emitExplosion(double x, double y, int amount, double speed) {
+        for (int i = 0; i < amount; i++) {
+            double angle = nextFloat() * 2 * Math.PI;
+            double velocity = speed * (0.3 + 0.7 * nextFloat());
+            int sprite = (i & 1) == 0 ? SPARK : EMBER;
+            emit(sprite, x, y, Math.cos(angle) * velocity, Math.sin(angle) * velocity, 0.15, 20 + (int) (nextFloat() * 25));
+        }
+    }
+
+    public void update() {
+        float[] x = this.x, y = this.y, velX = this.velX, velY = this.velY, gravity = this.gravity;
+        short[] life = this.life;
+        byte[] sprites = this.sprites;
+        int n = count;
+
+        for (int i = 0; i < n; ) {
+            if (--life[i] <= 0) {
+                // the last particle takes the dead one's slot, so the live ones stay packed
+                n--;
+                x[i] = x[n];
+                y[i] = y[n];
+                velX[i] = velX[n];
+                velY[i] = velY[n];
+                gravity[i] = gravity[n];
+                life[i] = life[n];
+                sprites[i] = sprites[n];
+                continue;
+            }
+            velY[i] += gravity[i];
+            x[i] += velX[i];
+            y[i] += velY[i];
+            i++;
+        }
+        count = n;
+    }
+
+    public void draw(Graphics2D g2) {
+        int n = count;
+        if (n == 0) {
+            return;
+        }
+        if (atlas == null) {
+            atlas = ImageLoader.getInstance().getParticleSprites();
+        }
+        BufferedImage[] atlas = this.atlas;
+        for (int i = 0; i < n; i++) {
+            g2.drawImage(atlas[sprites[i]], (int) x[i], (int) y[i], null);
+        }
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    private float nextFloat() {
+        // xorshift, good enough to scatter sparks
+        int s = seed;
+        s ^= s << 13;
+        s ^= s >>> 17;
+        s ^= s << 5;
+        seed = s;
+        return (s >>> 8) / (float) (1 << 24);
+    }
+}
@@ -8,14 +8,15 @@ import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ImageLoader {
-    private BufferedImage heroForms;
-    private final BufferedImage brickAnimation;
+    private final ConcurrentHashMap<String, BufferedImage> maps = new ConcurrentHashMap<>();
+    private final BufferedImage[] heroForms = new BufferedImage[5];
     private final BufferedImage backgroundImage, crossoverBackground, castle;
     private final BufferedImage superMushroom, oneHeartUpMushroom, fireFlower, coin;
     private final BufferedImage border, ordinaryBrick, surpriseBrick, revealedPrizeBrick, revealedCheckPoint, prizeBrick, oneCoinBrick, fiveCoinBrick, slime, slimeOnTouch, groundBrick, pipe, smallPipe, upSidePipe, hole;
-    private final BufferedImage goombaLeft, goombaRight, shell, koopaLeft, koopaRight, spinyLeft, spinyRight, piranhaOpen, piranhaClose, superStar, endFlag;
+    private final BufferedImage goombaLeft, goombaRight, shell, koopaLeft, koopaRight, spinyLeft, spinyRight, piranhaOpen, piranhaClose, superStar, endFlag, fireball;
     private final BufferedImage boss0, boss1, boss2, boss3, bossUpSide, fireballBoss, bossR0, bossR1, bossR2, bossR3, bossUpSideR, fireballR;
     private final BufferedImage startScreenImage, aboutScreenImage, helpScreenImage, checkPoint, gameOverScreen, storeScreenImage, loadGameScreen, pauseScreen;
     private final BufferedImage heartIcon;
@@ -24,6 +25,7 @@ public class ImageLoader {
     private final BufferedImage bomb, bombOff, bombOn, bombExplode;
     private final BufferedImage fire0, fire1, fire2;
     private final BufferedImage selectIcon;
+    private final BufferedImage[] particleSprites;
     private final BufferedImage icon;
     private final BufferedImage hp1, hp2, hp3, hp4, hp5, hp6, hp7, hp8, hp9, hp10, hp11, hp12, hp13, hp14, hp15, hp16, hp17, hp18, hp19, hp20;
     private static final ImageLoader instance = new ImageLoader();
@@ -65,7 +67,6 @@ public class ImageLoader {
         this.castle = loadImage("/castle.png");
         this.upSidePipe = loadImage("/upside-pipe.png");
         this.crossoverBackground = loadImage("/crossover-background.png");
-        this.brickAnimation = loadImage("/brick-animation.png");
         this.spinyLeft = loadImage("/spiny-left.png");
         this.spinyRight = loadImage("/spiny-right.png");
         this.backgroundImage = loadImage("/background.png");
@@ -119,6 +120,22 @@ public class ImageLoader {
         this.koopaRight = getSubImage(sprite, 4, 3, 48, 64);
         this.revealedPrizeBrick = getSubImage(sprite, 1, 2, 48, 48);
         this.endFlag = getSubImage(sprite, 5, 1, 48, 48);
+        this.fireball = getSubImage(sprite, 3, 4, 24, 24);
+        loadHeroForms();
+        // indexed by the ParticleSystem sprite ids, small enough to draw thousands unscaled
+        this.particleSprites = new BufferedImage[]{
+                ordinaryBrick.getSubimage(0, 0, 24, 24),
+                fireball,
+                fire0 != null ? scale(fire0, 16, 16) : fireball};
+    }
+
+    private static BufferedImage scale(BufferedImage image, int width, int height) {
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = scaled.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g2.drawImage(image, 0, 0, width, height, null);
+        g2.dispose();
+        return scaled;
     }
 
     public static ImageLoader getInstance() {
@@ -137,6 +154,15 @@ public class ImageLoader {
         return imageToReturn;
     }
 
+    public BufferedImage loadMapImage(String path) {
+        // maps are a pixel per tile, small enough to keep decoded for every session and reset
+        return maps.computeIfAbsent(path, this::loadImage);
+    }
+
+    public BufferedImage replaceMapImage(String path, BufferedImage image) {
+        return maps.put(path, image);
+    }
+
     public BufferedImage loadImage(File file) {
         BufferedImage imageToReturn = null;
 
@@ -156,7 +182,7 @@ public class ImageLoader {
         return image.getSubimage((col - 1) * 48, (row - 1) * 48, w, h);
     }
 
-    public BufferedImage[] getHeroLeftFrames(int heroForm) {
+    public BufferedImage[] getHeroLeftFrames(int heroType, int heroForm) {
 
         BufferedImage[] leftFrames;
         leftFrames = new BufferedImage[6];
@@ -178,10 +204,10 @@ public class ImageLoader {
             height = 96;
         }
 
-        return getHeroForms(leftFrames, col, width, height);
+        return getHeroForms(heroForms[heroType], leftFrames, col, width, height);
     }
 
-    public BufferedImage[] getHeroRightFrames(int heroForm) {
+    public BufferedImage[] getHeroRightFrames(int heroType, int heroForm) {
 
         BufferedImage[] rightFrames;
         rightFrames = new BufferedImage[6];
@@ -202,10 +228,10 @@ public class ImageLoader {
             height = 96;
         }
 
-        return getHeroForms(rightFrames, col, width, height);
+        return getHeroForms(heroForms[heroType], rightFrames, col, width, height);
     }
 
-    private BufferedImage[] getHeroForms(BufferedImage[] rightFrames, int col, int width, int height) {
+    private BufferedImage[] getHeroForms(BufferedImage heroForms, BufferedImage[] rightFrames, int col, int width, int height) {
         for (int i = 0; i < 6; i++) {
             if (i < 5) {
                 rightFrames[i] = heroForms.getSubimage((col - 1) * width, (i) * height, width, height);
@@ -217,41 +243,21 @@ public class ImageLoader {
         return rightFrames;
     }
 
-    public BufferedImage[] getBrickFrames() {
-        BufferedImage[] frames = new BufferedImage[4];
-        for (int i = 0; i < 4; i++) {
-            frames[i] = brickAnimation.getSubimage(i * 105, 0, 105, 105);
-        }
-        return frames;
+    public BufferedImage[] getParticleSprites() {
+        return particleSprites;
     }
 
     public BufferedImage getFireballImage() {
-        return getSubImage(loadImage("/sprite.png"), 3, 4, 24, 24);
-    }
-
-
-    public void setHeroType(int heroType) {
-        setHeroForms(heroType);
-    }
-
-    private void setHeroForms(int heroType) {
-        switch (heroType) {
-            case HeroType.LUIGI:
-                heroForms = loadImage("/hero/luigi-forms.png");
-                break;
-            case HeroType.ROSALINA:
-                heroForms = loadImage("/hero/rosalina-forms.png");
-                break;
-            case HeroType.TOAD:
-                heroForms = loadImage("/hero/toad-forms.png");
-                break;
-            case HeroType.PRINCESS_PEACH:
-                heroForms = loadImage("/hero/princess peach-forms.png");
-                break;
-            default:
-                heroForms = loadImage("/hero/mario-forms.png");
-                break;
-        }
+        return fireball;
+    }
+
+
+    private void loadHeroForms() {
+        heroForms[HeroType.MARIO] = loadImage("/hero/mario-forms.png");
+        heroForms[HeroType.LUIGI] = loadImage("/hero/luigi-forms.png");
+        heroForms[HeroType.PRINCESS_PEACH] = loadImage("/hero/princess peach-forms.png");
+        heroForms[HeroType.ROSALINA] = loadImage("/hero/rosalina-forms.png");
+        heroForms[HeroType.TOAD] = loadImage("/hero/toad-forms.png");
     }
 
 
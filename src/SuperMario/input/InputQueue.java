@@ -0,0 +1,65 @@
+package SuperMario.input;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class InputQueue {
+
+    public static final int CAPACITY = 256;
+    private static final int MASK = CAPACITY - 1;
+
+    // single producer (the thread delivering key events) and single consumer (the game thread)
+    private final int[] keyCodes = new int[CAPACITY];
+    private final boolean[] pressed = new boolean[CAPACITY];
+    private final long[] times = new long[CAPACITY];
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private int keyCode;
+    private boolean isPressed;
+    private long time;
+
+    public boolean offer(int keyCode, boolean isPressed, long time) {
+        long t = tail.get();
+        if (t - head.get() == CAPACITY) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        int slot = (int) t & MASK;
+        keyCodes[slot] = keyCode;
+        pressed[slot] = isPressed;
+        times[slot] = time;
+        // ordered store, the slot is visible to the consumer before the new tail is
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    public boolean poll() {
+        long h = head.get();
+        if (h == tail.get()) {
+            return false;
+        }
+        int slot = (int) h & MASK;
+        keyCode = keyCodes[slot];
+        isPressed = pressed[slot];
+        time = times[slot];
+        head.lazySet(h + 1);
+        return true;
+    }
+
+    public int getKeyCode() {
+        return keyCode;
+    }
+
+    public boolean isPressed() {
+        return isPressed;
+    }
+
+    public long getTime() {
+        return time;
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+}
@@ -0,0 +1,324 @@
+package SuperMario.input;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+
+public class MusicPlayer implements Runnable {
+
+    // every track is converted to this, so two of them can be mixed sample by sample
+    private static final AudioFormat FORMAT = new AudioFormat(44100f, 16, 2, true, false);
+    private static final int CHANNELS = 2;
+    private static final int FRAME_SIZE = 4;
+    private static final int CHUNK_FRAMES = 1024;
+    // the line buffer is the ring between this thread and the device, about 90 ms of audio
+    private static final int BUFFER_CHUNKS = 4;
+    private static final int CROSSFADE_FRAMES = 22050;
+
+    // written by the game thread, picked up by the audio thread before every chunk
+    private MusicTrack requested;
+    private boolean restartRequested;
+    private int requestVersion;
+    private volatile boolean paused = true;
+    private volatile SourceDataLine line;
+
+    // only touched by the audio thread
+    private final HashMap<MusicTrack, MusicStream> streams = new HashMap<>();
+    private final int[] mix = new int[CHUNK_FRAMES * CHANNELS];
+    private final byte[] out = new byte[CHUNK_FRAMES * FRAME_SIZE];
+    private MusicStream current;
+    private MusicStream leaving;
+    private int fadeFrame = CROSSFADE_FRAMES;
+    private int appliedVersion;
+
+    public MusicPlayer() {
+        Thread thread = new Thread(this, "music");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // keeps playing from where the track was left, crossfading from whatever plays now
+    public synchronized void play(MusicTrack track) {
+        if (requested != track) {
+            requested = track;
+            requestVersion++;
+        }
+        paused = false;
+        notifyAll();
+    }
+
+    public synchronized void restart(MusicTrack track) {
+        requested = track;
+        restartRequested = true;
+        requestVersion++;
+        paused = false;
+        notifyAll();
+    }
+
+    // fades the current track out
+    public synchronized void stop() {
+        requested = null;
+        requestVersion++;
+        notifyAll();
+    }
+
+    public synchronized void pause() {
+        paused = true;
+        SourceDataLine output = line;
+        if (output != null) {
+            output.stop();
+        }
+    }
+
+    public synchronized void resume() {
+        paused = false;
+        notifyAll();
+    }
+
+    @Override
+    public void run() {
+        SourceDataLine output;
+        try {
+            output = AudioSystem.getSourceDataLine(FORMAT);
+            output.open(FORMAT, CHUNK_FRAMES * FRAME_SIZE * BUFFER_CHUNKS);
+        } catch (LineUnavailableException | IllegalArgumentException e) {
+            System.err.println("Music disabled: " + e.getMessage());
+            return;
+        }
+        line = output;
+
+        try {
+            while (true) {
+                awaitWork();
+                output.start();
+                mixChunk();
+                write(output);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            output.close();
+            for (MusicStream stream : streams.values()) {
+                stream.close();
+            }
+        }
+    }
+
+    private void awaitWork() throws InterruptedException {
+        while (true) {
+            MusicTrack track;
+            boolean restart;
+            synchronized (this) {
+                if (requestVersion == appliedVersion) {
+                    if (!paused && !isIdle()) {
+                        return;
+                    }
+                    // a pause racing the start of the last chunk could have left the line running
+                    line.stop();
+                    wait();
+                    continue;
+                }
+                appliedVersion = requestVersion;
+                track = requested;
+                restart = restartRequested;
+                restartRequested = false;
+            }
+            // opening files happens outside the lock so the game thread never waits on the disk
+            switchTo(track, restart);
+        }
+    }
+
+    private boolean isIdle() {
+        return (current == null || current.isBroken()) && (leaving == null || leaving.isBroken());
+    }
+
+    private void switchTo(MusicTrack track, boolean restart) {
+        MusicStream next = null;
+        if (track != null) {
+            next = streams.get(track);
+            if (next == null) {
+                next = new MusicStream(track);
+                streams.put(track, next);
+            }
+        }
+
+        if (next != null && next == leaving) {
+            // turning back halfway through a crossfade continues from the same mix
+            leaving = current;
+            current = next;
+            fadeFrame = CROSSFADE_FRAMES - fadeFrame;
+        } else if (next != current) {
+            if (leaving != null) {
+                leaving.close();
+            }
+            leaving = current;
+            current = next;
+            fadeFrame = 0;
+        }
+
+        if (current != null) {
+            if (restart) {
+                current.seek(0);
+            } else {
+                current.open();
+            }
+        }
+    }
+
+    private void mixChunk() {
+        Arrays.fill(mix, 0);
+        if (current != null) {
+            current.mixInto(mix, fadeFrame, true);
+        }
+        if (leaving != null) {
+            leaving.mixInto(mix, fadeFrame, false);
+        }
+
+        fadeFrame = Math.min(CROSSFADE_FRAMES, fadeFrame + CHUNK_FRAMES);
+        if (fadeFrame == CROSSFADE_FRAMES && leaving != null) {
+            leaving.close();
+            leaving = null;
+        }
+
+        for (int i = 0, j = 0; i < mix.length; i++) {
+            int sample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, mix[i]));
+            out[j++] = (byte) sample;
+            out[j++] = (byte) (sample >> 8);
+        }
+    }
+
+    private void write(SourceDataLine output) throws InterruptedException {
+        int offset = 0;
+        while (offset < out.length) {
+            offset += output.write(out, offset, out.length - offset);
+            if (offset < out.length) {
+                // a pause stops the line, which returns from a blocked write early
+                synchronized (this) {
+                    while (paused) {
+                        wait();
+                    }
+                }
+                output.start();
+            }
+        }
+    }
+
+    private static class MusicStream {
+
+        private final MusicTrack track;
+        private final byte[] bytes = new byte[CHUNK_FRAMES * FRAME_SIZE];
+        private AudioInputStream in;
+        // next frame to read, counted from the start of the file
+        private long frame;
+        private long loopEnd;
+        private boolean broken;
+
+        MusicStream(MusicTrack track) {
+            this.track = track;
+        }
+
+        boolean isBroken() {
+            return broken;
+        }
+
+        void open() {
+            if (in == null) {
+                seek(frame);
+            }
+        }
+
+        void seek(long target) {
+            if (broken) {
+                return;
+            }
+            close();
+            try {
+                in = AudioSystem.getAudioInputStream(FORMAT, AudioSystem.getAudioInputStream(new File(track.getPath())));
+                loopEnd = track.getLoopEnd() == MusicTrack.END ? in.getFrameLength() : track.getLoopEnd();
+                long remaining = target * FRAME_SIZE;
+                while (remaining > 0) {
+                    long skipped = in.skip(remaining);
+                    if (skipped <= 0) {
+                        break;
+                    }
+                    remaining -= skipped;
+                }
+                frame = target - remaining / FRAME_SIZE;
+            } catch (Exception e) {
+                System.err.println("Cannot stream " + track.getName() + ": " + e.getMessage());
+                broken = true;
+                close();
+            }
+        }
+
+        void mixInto(int[] mix, int fadeStart, boolean fadingIn) {
+            int done = 0;
+            boolean wrapped = false;
+            while (done < CHUNK_FRAMES && !broken && in != null) {
+                int wanted = CHUNK_FRAMES - done;
+                if (loopEnd > 0) {
+                    wanted = (int) Math.min(wanted, loopEnd - frame);
+                }
+                int read = wanted > 0 ? readFrames(wanted) : 0;
+                if (read <= 0) {
+                    if (wrapped) {
+                        // nothing between the loop points
+                        broken = true;
+                        break;
+                    }
+                    // the loop end is reached exactly on its frame, so the next one is the loop start
+                    seek(track.getLoopStart());
+                    wrapped = true;
+                    continue;
+                }
+                wrapped = false;
+
+                for (int i = 0; i < read; i++) {
+                    float fade = Math.min(1f, (fadeStart + done + i) / (float) CROSSFADE_FRAMES);
+                    float gain = fadingIn ? fade : 1f - fade;
+                    int b = i * FRAME_SIZE;
+                    int m = (done + i) * CHANNELS;
+                    mix[m] += (int) (gain * (short) ((bytes[b] & 0xFF) | bytes[b + 1] << 8));
+                    mix[m + 1] += (int) (gain * (short) ((bytes[b + 2] & 0xFF) | bytes[b + 3] << 8));
+                }
+                done += read;
+                frame += read;
+            }
+        }
+
+        private int readFrames(int frames) {
+            try {
+                int length = frames * FRAME_SIZE;
+                int offset = 0;
+                while (offset < length) {
+                    int read = in.read(bytes, offset, length - offset);
+                    if (read <= 0) {
+                        break;
+                    }
+                    offset += read;
+                }
+                return offset / FRAME_SIZE;
+            } catch (IOException e) {
+                System.err.println("Cannot stream " + track.getName() + ": " + e.getMessage());
+                broken = true;
+                return 0;
+            }
+        }
+
+        void close() {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException ignored) {
+                }
+                in = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package SuperMario.input;
+
+public class MusicTrack {
+
+    public static final long END = -1;
+
+    // loop points are in frames, END loops at the last frame of the file
+    public static final MusicTrack OVERWORLD = new MusicTrack("background", 0, END);
+    public static final MusicTrack BOSS_FIGHT = new MusicTrack("BossFightBackground", 0, END);
+
+    private final String name;
+    private final long loopStart;
+    private final long loopEnd;
+
+    public MusicTrack(String name, long loopStart, long loopEnd) {
+        this.name = name;
+        this.loopStart = loopStart;
+        this.loopEnd = loopEnd;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getPath() {
+        return "src/resources/audio/" + name + ".wav";
+    }
+
+    public long getLoopStart() {
+        return loopStart;
+    }
+
+    public long getLoopEnd() {
+        return loopEnd;
+    }
+}
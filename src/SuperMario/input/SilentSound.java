@@ -0,0 +1,33 @@
+package SuperMario.input;
+
+// used by headless sessions, which have no audio device to play on
+public class SilentSound implements SoundSink {
+
+    @Override
+    public void playBackground() {
+    }
+
+    @Override
+    public void resumeBackground() {
+    }
+
+    @Override
+    public void pauseBackground() {
+    }
+
+    @Override
+    public void restartBackground() {
+    }
+
+    @Override
+    public void playBowserBackground() {
+    }
+
+    @Override
+    public void stopBowserBackground() {
+    }
+
+    @Override
+    public void playEffects(int effects) {
+    }
+}
@@ -0,0 +1,39 @@
+package SuperMario.input;
+
+public class SoundEffect {
+
+    // ids are bit positions, a tick's requests travel as one int mask
+    public static final int JUMP = 0;
+    public static final int COIN = 1;
+    public static final int FIREBALL = 2;
+    public static final int GAME_OVER = 3;
+    public static final int STOMP = 4;
+    public static final int ONE_UP = 5;
+    public static final int POWER_UP = 6;
+    public static final int HERO_DIES = 7;
+    public static final int BREAK_BRICK = 8;
+    public static final int HERO_FALLS = 9;
+    public static final int KICK_ENEMY = 10;
+    public static final int STAGE_CLEAR = 11;
+    public static final int FLAG_POLE = 12;
+    public static final int SUPER_STAR = 13;
+    public static final int BOWSER_FIREBALL = 14;
+    public static final int BOWSER_DIES = 15;
+    public static final int PIPE = 16;
+    public static final int COUNT = 17;
+
+    private static final String[] names = {"jump", "coin", "fireball", "gameOver", "stomp", "oneUp", "powerUp",
+            "heroDies", "breakBrick", "heroFalls", "kickEnemy", "stageClear", "flagPole", "superStar",
+            "bowserFireball", "bowserDies", "pipe"};
+
+    // how many copies of an effect may overlap, short effects repeat quickly while jingles never stack
+    private static final int[] voices = {2, 3, 2, 1, 2, 1, 1, 1, 2, 1, 2, 1, 1, 1, 2, 1, 1};
+
+    public static String getName(int effect) {
+        return names[effect];
+    }
+
+    public static int getVoices(int effect) {
+        return voices[effect];
+    }
+}
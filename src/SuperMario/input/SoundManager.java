@@ -4,19 +4,24 @@ import javax.sound.sampled.AudioInputStream;
 import javax.sound.sampled.AudioSystem;
 import javax.sound.sampled.Clip;
 import java.io.File;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 
-public class SoundManager {
+public class SoundManager implements SoundSink, Runnable {
 
-    private final Clip background;
-    private final Clip bowserBackground;
-    private long clipTime = 0;
-    private Timer timer;
+    private final MusicPlayer music = new MusicPlayer();
+    // effects requested by the game thread and not started yet
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Thread dispatcher;
+
+    // only touched by the dispatcher thread
+    private final Clip[][] voices = new Clip[SoundEffect.COUNT][];
+    private final int[] nextVoice = new int[SoundEffect.COUNT];
 
     public SoundManager() {
-        this.background = getClip(loadAudio("background"));
-        this.bowserBackground = getClip(loadAudio("BossFightBackground"));
+        dispatcher = new Thread(this, "sound effects");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
     }
 
     private AudioInputStream loadAudio(String url) {
@@ -45,146 +50,87 @@ public class SoundManager {
         return null;
     }
 
+    @Override
     public void playBackground() {
-        background.start();
-
-        TimerTask task = new TimerTask() {
-            @Override
-            public void run() {
-                background.stop();
-                playBackground();
-            }
-        };
-        timer = new Timer();
-        timer.schedule(task, 82000);
+        music.play(MusicTrack.OVERWORLD);
     }
 
+    @Override
     public void resumeBackground() {
-        if (!background.isRunning()) {
-            background.setMicrosecondPosition(clipTime);
-            background.start();
-        }
+        music.resume();
     }
 
+    @Override
     public void pauseBackground() {
-        clipTime = background.getMicrosecondPosition();
-        background.stop();
-        if (timer != null) {
-            timer.cancel();
-        }
+        music.pause();
     }
 
+    @Override
     public void restartBackground() {
-        clipTime = 0;
-        playBackground();
-    }
-
-    public void playJump() {
-        Clip clip = getClip(loadAudio("jump"));
-        clip.start();
-    }
-
-    public void playCoin() {
-        Clip clip = getClip(loadAudio("coin"));
-        clip.start();
-    }
-
-    public void playFireball() {
-        Clip clip = getClip(loadAudio("fireball"));
-        clip.start();
-    }
-
-    public void playGameOver() {
-        pauseBackground();
-        Clip clip = getClip(loadAudio("gameOver"));
-        clip.start();
-    }
-
-    public void playStomp() {
-        Clip clip = getClip(loadAudio("stomp"));
-        clip.start();
-    }
-
-    public void playOneUp() {
-        Clip clip = getClip(loadAudio("oneUp"));
-        clip.start();
+        music.restart(MusicTrack.OVERWORLD);
     }
 
-    public void playPowerUp() {
-        Clip clip = getClip(loadAudio("powerUp"));
-        clip.start();
-    }
-
-    public void playHeroDies() {
-        Clip clip = getClip(loadAudio("heroDies"));
-        clip.start();
-    }
-
-    public void playBreakBrick() {
-        Clip clip = getClip(loadAudio("breakBrick"));
-        clip.start();
-    }
-
-    public void playHeroFalls() {
-        Clip clip = getClip(loadAudio("heroFalls"));
-        clip.start();
-    }
-
-    public void playKickEnemy() {
-        Clip clip = getClip(loadAudio("kickEnemy"));
-        clip.start();
-    }
-
-    public void playStageClear() {
-        pauseBackground();
-        Clip clip = getClip(loadAudio("stageClear"));
-        clip.start();
-    }
-
-    public void playFlagPole() {
-        Clip clip = getClip(loadAudio("flagPole"));
-        clip.start();
+    @Override
+    public void playBowserBackground() {
+        music.restart(MusicTrack.BOSS_FIGHT);
     }
 
-    public void playSuperStar() {
-        Clip clip = getClip(loadAudio("superStar"));
-        clip.start();
-        pauseBackground();
+    @Override
+    public void stopBowserBackground() {
+        music.stop();
     }
 
-    public void playBowserFireBall() {
-        Clip clip = getClip(loadAudio("bowserFireball"));
-        clip.start();
+    @Override
+    public void playEffects(int effects) {
+        if (pending.getAndAccumulate(effects, (a, b) -> a | b) == 0) {
+            LockSupport.unpark(dispatcher);
+        }
     }
 
-    public void playBowserDies() {
-        Clip clip = getClip(loadAudio("bowserDies"));
-        clip.start();
-    }
+    @Override
+    public void run() {
+        // every voice is opened once up front instead of loading the file on each play
+        for (int effect = 0; effect < SoundEffect.COUNT; effect++) {
+            voices[effect] = new Clip[SoundEffect.getVoices(effect)];
+            for (int i = 0; i < voices[effect].length; i++) {
+                AudioInputStream stream = loadAudio(SoundEffect.getName(effect));
+                voices[effect][i] = stream == null ? null : getClip(stream);
+            }
+        }
 
-    public void playBowserBackground() {
-        bowserBackground.setMicrosecondPosition(clipTime);
-        bowserBackground.start();
-        pauseBackground();
-        TimerTask task = new TimerTask() {
-            @Override
-            public void run() {
-                bowserBackground.stop();
-                playBowserBackground();
+        while (true) {
+            int effects = pending.getAndSet(0);
+            if (effects == 0) {
+                LockSupport.park(this);
+                continue;
             }
-        };
-        timer = new Timer();
-        timer.schedule(task, 21000);
+            for (int effect = 0; effect < SoundEffect.COUNT; effect++) {
+                if ((effects & 1 << effect) != 0) {
+                    start(effect);
+                }
+            }
+        }
     }
 
-    public void stopBowserBackground() {
-        timer.cancel();
-        bowserBackground.stop();
-    }
+    private void start(int effect) {
+        Clip[] clips = voices[effect];
+        // voices are started in turn, so the next one is the one started longest ago
+        int voice = nextVoice[effect];
+        for (int i = 0; i < clips.length; i++) {
+            int candidate = (nextVoice[effect] + i) % clips.length;
+            if (clips[candidate] != null && !clips[candidate].isRunning()) {
+                voice = candidate;
+                break;
+            }
+        }
+        Clip clip = clips[voice];
+        if (clip == null) {
+            return;
+        }
+        nextVoice[effect] = (voice + 1) % clips.length;
 
-    public void playPipe() {
-        Clip clip = getClip(loadAudio("pipe"));
+        clip.stop();
+        clip.setFramePosition(0);
         clip.start();
-        pauseBackground();
     }
 }
@@ -0,0 +1,19 @@
+package SuperMario.input;
+
+public interface SoundSink {
+
+    void playBackground();
+
+    void resumeBackground();
+
+    void pauseBackground();
+
+    void restartBackground();
+
+    void playBowserBackground();
+
+    void stopBowserBackground();
+
+    // one call per tick, a bit per SoundEffect id
+    void playEffects(int effects);
+}
@@ -2,29 +2,51 @@ package SuperMario.logic;
 
 import SuperMario.graphic.manager.Camera;
 import SuperMario.graphic.manager.InputManager;
+import SuperMario.graphic.view.animation.AnimationClock;
+import SuperMario.graphic.view.animation.ParticleSystem;
 import SuperMario.graphic.view.states.*;
 import SuperMario.input.ImageLoader;
-import SuperMario.input.SoundManager;
+import SuperMario.input.SoundEffect;
+import SuperMario.input.SoundSink;
 
 import SuperMario.graphic.view.UI.UIManager;
+import SuperMario.model.EntityPools;
 import SuperMario.model.map.Map;
 import SuperMario.model.hero.Hero;
 import SuperMario.model.hero.HeroForm;
+import SuperMario.repository.SaveIndexEntry;
+import SuperMario.repository.SaveListener;
+import SuperMario.repository.WorldSnapshot;
 
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
 
 public class GameEngine implements Runnable {
 
-    private static final GameEngine instance = new GameEngine();
     private final static int WIDTH = 1268, HEIGHT = 708;
+    public final static int TICKS_PER_SECOND = 60;
+    private GameSession session;
     private UserData userData;
     private MapManager mapManager;
+    private TickScheduler scheduler;
+    private AnimationClock animationClock;
+    private ParticleSystem particles;
+    private EntityPools pools;
+    private final LatencyTracer latencyTracer = new LatencyTracer();
+    private InputManager inputManager;
     private UIManager uiManager;
-    private SoundManager soundManager;
-    private GameState gameState;
+    private SoundSink soundManager;
+    // effects requested during the current tick, a bit per SoundEffect id
+    private int pendingSounds;
+    private volatile GameState gameState;
+    // menus and overlays are static, the render thread sleeps on this until something on screen changes
+    private final Object redrawLock = new Object();
+    private boolean redrawRequested = true;
     private Camera camera;
     private Camera crossoverCamera;
     private ImageLoader imageLoader;
@@ -37,26 +59,52 @@ public class GameEngine implements Runnable {
     private final MapSelection mapSelection = MapSelection.WORLD_1;
     private boolean isRunning;
     private boolean isMute = false;
+    private volatile String saveStatus;
+    // set again on every UserData a load replaces, each one brings its own save repository
+    private final SaveListener saveListener = new SaveListener() {
+        @Override
+        public void onSaved(int fileNumber) {
+            saveStatus = "Saved on slot " + (fileNumber + 1);
+            requestRedraw();
+        }
+
+        @Override
+        public void onSaveFailed(int fileNumber, Exception exception) {
+            saveStatus = "Saving on slot " + (fileNumber + 1) + " failed!";
+            requestRedraw();
+        }
+    };
+    private long ticks;
 
-    private GameEngine() {
-        initial();
+    GameEngine(GameSession session) {
+        initial(session);
     }
 
     public static GameEngine getInstance() {
-        return instance;
+        return GameSession.current().getEngine();
     }
 
-    private void initial() {
+    private void initial(GameSession session) {
+        this.session = session;
         imageLoader = ImageLoader.getInstance();
-        InputManager inputManager = InputManager.getInstance();
+        inputManager = session.getInputManager();
         gameState = GameState.START_SCREEN;
         camera = new Camera();
         crossoverCamera = new Camera();
-        uiManager = new UIManager(this, WIDTH, HEIGHT);
-        soundManager = new SoundManager();
-        mapManager = MapManager.getInstance();
-        userData = UserData.getInstance();
+        soundManager = session.getSound();
+        mapManager = session.getMapManager();
+        scheduler = session.getScheduler();
+        animationClock = session.getAnimationClock();
+        particles = session.getParticles();
+        pools = session.getPools();
+        userData = session.getUserData();
+        userData.getSaveGameRepository().setSaveListener(saveListener);
+
+        if (session.isHeadless()) {
+            return;
+        }
 
+        uiManager = new UIManager(this, WIDTH, HEIGHT);
         JFrame frame = new JFrame("Super Mario Bros.");
         frame.setIconImage(imageLoader.getIcon());
         frame.add(uiManager);
@@ -66,11 +114,9 @@ public class GameEngine implements Runnable {
         frame.setResizable(false);
         frame.setLocationRelativeTo(null);
         frame.setVisible(true);
-
-        start();
     }
 
-    private synchronized void start() {
+    synchronized void start() {
         if (isRunning) {
             return;
         }
@@ -80,6 +126,7 @@ public class GameEngine implements Runnable {
     }
 
     private void reset() {
+        saveStatus = null;
         userData.clear();
         resetCamera();
         setGameState(GameState.START_SCREEN);
@@ -161,9 +208,14 @@ public class GameEngine implements Runnable {
             delta += (now - lastTime) / ns;
             lastTime = now;
             while (delta >= 1) {
+                if (inputManager.processInput(latencyTracer)) {
+                    requestRedraw();
+                }
                 if (gameState == GameState.RUNNING || gameState == GameState.CROSSOVER) {
                     gameLoop();
                 }
+                flushSounds();
+                latencyTracer.tickFinished(System.nanoTime());
                 delta--;
             }
 
@@ -183,16 +235,13 @@ public class GameEngine implements Runnable {
             while (true) {
                 try {
                     Thread.sleep(12);
+                    awaitRedraw();
                 } catch (InterruptedException e) {
                     throw new RuntimeException(e);
                 }
                 try {
                     if (gameState == GameState.RUNNING) {
-                        updateCamera();
-                        if (userData.getHero().getX() <= this.getCameraLocation().getX() && userData.getHero().getVelX() < 0) {
-                            userData.getHero().setVelX(0);
-                            userData.getHero().setX(this.getCameraLocation().getX());
-                        }
+                        followHero();
                     }
                 } catch (Exception ignored) {
 
@@ -206,7 +255,54 @@ public class GameEngine implements Runnable {
         uiManager.repaint();
     }
 
+    private void awaitRedraw() throws InterruptedException {
+        synchronized (redrawLock) {
+            while (!redrawRequested && isIdle(gameState)) {
+                redrawLock.wait();
+            }
+            redrawRequested = false;
+        }
+    }
+
+    public void requestRedraw() {
+        synchronized (redrawLock) {
+            redrawRequested = true;
+            redrawLock.notifyAll();
+        }
+    }
+
+    private static boolean isIdle(GameState state) {
+        return state != GameState.RUNNING && state != GameState.CROSSOVER && state != GameState.MISSION_PASSED;
+    }
+
+    public void tick() {
+        // headless sessions have no loop or render thread, the caller steps them instead
+        inputManager.processInput(latencyTracer);
+        if (gameState == GameState.RUNNING || gameState == GameState.CROSSOVER) {
+            gameLoop();
+        }
+        if (gameState == GameState.RUNNING) {
+            followHero();
+            if (++ticks % TICKS_PER_SECOND == 0) {
+                mapManager.updateTime();
+            }
+        }
+        flushSounds();
+        latencyTracer.tickFinished(System.nanoTime());
+    }
+
+    private void followHero() {
+        updateCamera();
+        if (userData.getHero().getX() <= this.getCameraLocation().getX() && userData.getHero().getVelX() < 0) {
+            userData.getHero().setVelX(0);
+            userData.getHero().setX(this.getCameraLocation().getX());
+        }
+    }
+
     private void gameLoop() {
+        scheduler.advance();
+        animationClock.advance();
+        particles.update();
         if (gameState != GameState.CROSSOVER) {
             updateLocations();
             checkCollisions();
@@ -250,24 +346,32 @@ public class GameEngine implements Runnable {
     }
 
     private void updateLocations() {
-        mapManager.updateLocations();
+        mapManager.updateActivation(camera.getX(), camera.getX() + WIDTH);
+        mapManager.updateLocations(this);
     }
 
     private void updateLocationsForCrossover() {
-        mapManager.updateLocationsForCrossover();
+        mapManager.updateLocationsForCrossover(this);
     }
 
     private void checkCollisions() {
         mapManager.checkCollisions(this);
     }
 
-    private void checkAndThenLoadFile(int fileId) throws IOException {
+    private void checkAndThenLoadFile(int fileId) {
         if (2 < fileId || fileId < 0) {
             startGame(fileId);
             return;
         }
         if (!userData.getLoadGameRepository().isFileEmpty(fileId)) {
-            loadGame(fileId);
+            try {
+                loadGame(fileId);
+            } catch (IOException | RuntimeException e) {
+                // a broken slot keeps the player on the load screen, the game loop must survive it
+                saveStatus = "Loading slot " + (fileId + 1) + " failed!";
+                requestRedraw();
+                return;
+            }
             setGameState(GameState.STORE_SCREEN);
         } else {
             startGame(MapSelection.WORLD_1.getWorldNumber());
@@ -287,7 +391,7 @@ public class GameEngine implements Runnable {
         setGameState(GameState.RUNNING);
     }
 
-    public void receiveInput() throws IOException {
+    public void receiveInput() {
 
         InputManager inputMgr = InputManager.getInstance();
 
@@ -370,7 +474,7 @@ public class GameEngine implements Runnable {
                 userData.getHero().setVelX(0);
                 userData.getHero().getUp();
                 if (userData.getHero().isSuper()) {
-                    userData.getHero().getDimension().height = 96;
+                    userData.getHero().setDimension(userData.getHero().getWidth(), 96);
                 }
             } else if (inputMgr.isSpace()) {
                 if (userData.getHero().isAxeActivated()) {
@@ -481,10 +585,9 @@ public class GameEngine implements Runnable {
         loadNewHero(type);
     }
 
-    private void loadNewHero(int type) {
+    public void loadNewHero(int type) {
         mapManager.getHero().setType(type);
         mapManager.getHero().getHeroForm().setHeroType(type);
-        imageLoader.setHeroType(type);
         userData.getHero().setType(type);
         int heroFormId = userData.getHero().isSuper() ? 1 : 0;
         if (userData.getHero().getHeroForm().ifCanShootFire()) {
@@ -492,8 +595,8 @@ public class GameEngine implements Runnable {
         }
         userData.getHero().setHeroForm(
                 new HeroForm(
-                        imageLoader.getHeroLeftFrames(heroFormId),
-                        imageLoader.getHeroRightFrames(heroFormId),
+                        imageLoader.getHeroLeftFrames(type, heroFormId),
+                        imageLoader.getHeroRightFrames(type, heroFormId),
                         userData.getHero().isSuper(),
                         userData.getHero().getHeroForm().ifCanShootFire(),
                         type));
@@ -505,16 +608,57 @@ public class GameEngine implements Runnable {
 
     private void loadGame(int fileNumber) throws IOException {
         userData = userData.getLoadGameRepository().getUserData(fileNumber);
+        userData.getSaveGameRepository().setSaveListener(saveListener);
         userData.setHero(userData.getHero());
         userData.setTypesOwned(userData.getTypesOwned());
         mapManager.setMap(createMap(userData.getMapPath(), userData.getHero()));
         mapManager.setHero(userData.getHero());
+
+        byte[] world = userData.getLoadGameRepository().getWorldState(fileNumber);
+        if (world != null) {
+            try {
+                WorldSnapshot.decode(mapManager, world);
+            } catch (IOException e) {
+                // an old or foreign snapshot just leaves the level pristine
+                System.out.println("Could not restore world of slot " + fileNumber + ": " + e.getMessage());
+            }
+        }
         resetCamera();
     }
 
     private void saveGame(int fileNumber) {
         userData.setMapPath(mapManager.getMap().getPath());
-        userData.getSaveGameRepository().addUserData(userData, fileNumber);
+        byte[] world;
+        try {
+            world = WorldSnapshot.encode(mapManager, true);
+        } catch (IOException e) {
+            saveListener.onSaveFailed(fileNumber, e);
+            return;
+        }
+        saveStatus = "Saving...";
+        userData.getSaveGameRepository().addUserData(userData, fileNumber, createThumbnail(), world);
+    }
+
+    private BufferedImage createThumbnail() {
+        // drawing only paints now, so this frame leaves the tick and the seeded Random untouched
+        BufferedImage thumbnail = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = thumbnail.createGraphics();
+        g2.translate(-camera.getX(), -camera.getY());
+        mapManager.drawMap(g2);
+        g2.dispose();
+        return thumbnail;
+    }
+
+    public SaveIndexEntry getSaveSummary(int fileNumber) {
+        return userData.getLoadGameRepository().getSummary(fileNumber);
+    }
+
+    public BufferedImage getSaveThumbnail(int fileNumber) {
+        return userData.getLoadGameRepository().getThumbnail(fileNumber);
+    }
+
+    public String getSaveStatus() {
+        return saveStatus;
     }
 
     private void selectOptionsOnStart(boolean selectUp) {
@@ -574,6 +718,22 @@ public class GameEngine implements Runnable {
         return imageLoader;
     }
 
+    public GameSession getSession() {
+        return session;
+    }
+
+    public TickScheduler getScheduler() {
+        return scheduler;
+    }
+
+    public EntityPools getPools() {
+        return pools;
+    }
+
+    public LatencyTracer getLatencyTracer() {
+        return latencyTracer;
+    }
+
     public GameState getGameState() {
         return gameState;
     }
@@ -595,7 +755,11 @@ public class GameEngine implements Runnable {
     }
 
     public void setGameState(GameState gameState) {
+        if (uiManager != null && (gameState == GameState.PAUSED || gameState == GameState.CHECKPOINT)) {
+            uiManager.invalidateFrozenFrame();
+        }
         this.gameState = gameState;
+        requestRedraw();
     }
 
     public int getScore() {
@@ -626,68 +790,84 @@ public class GameEngine implements Runnable {
         return mapManager.passMission();
     }
 
+    private void playSound(int effect) {
+        // ten coins in one tick are one request
+        pendingSounds |= 1 << effect;
+    }
+
+    private void flushSounds() {
+        if (pendingSounds != 0) {
+            soundManager.playEffects(pendingSounds);
+            pendingSounds = 0;
+        }
+    }
+
     public void playCoin() {
-        soundManager.playCoin();
+        playSound(SoundEffect.COIN);
     }
 
     public void playOneUp() {
-        soundManager.playOneUp();
+        playSound(SoundEffect.ONE_UP);
     }
 
     public void playPowerUp() {
-        soundManager.playPowerUp();
+        playSound(SoundEffect.POWER_UP);
     }
 
     public void playHeroDies() {
-        soundManager.playHeroDies();
+        playSound(SoundEffect.HERO_DIES);
     }
 
     public void playGameOver() {
-        soundManager.playGameOver();
+        soundManager.pauseBackground();
+        playSound(SoundEffect.GAME_OVER);
     }
 
     public void playJump() {
-        soundManager.playJump();
+        playSound(SoundEffect.JUMP);
     }
 
     public void playFireball() {
-        soundManager.playFireball();
+        playSound(SoundEffect.FIREBALL);
     }
 
     public void playHeroFalls() {
-        soundManager.playHeroFalls();
+        playSound(SoundEffect.HERO_FALLS);
     }
 
     public void playKickEnemy() {
-        soundManager.playKickEnemy();
+        playSound(SoundEffect.KICK_ENEMY);
     }
 
     public void playBreakBrick() {
-        soundManager.playBreakBrick();
+        playSound(SoundEffect.BREAK_BRICK);
     }
 
     public void playStageClear() {
-        soundManager.playStageClear();
+        soundManager.pauseBackground();
+        playSound(SoundEffect.STAGE_CLEAR);
     }
 
     public void playFlagPole() {
-        soundManager.playFlagPole();
+        playSound(SoundEffect.FLAG_POLE);
     }
 
     public void playSuperStar() {
-        soundManager.playSuperStar();
+        soundManager.pauseBackground();
+        playSound(SoundEffect.SUPER_STAR);
     }
 
     public void playBowserDies() {
-        soundManager.playBowserDies();
+        playSound(SoundEffect.BOWSER_DIES);
     }
 
     public void playBowserFireBall() {
-        soundManager.playBowserFireBall();
+        playSound(SoundEffect.BOWSER_FIREBALL);
     }
 
     public void playPipe() {
-        soundManager.playPipe();
+        soundManager.pauseBackground();
+        playSound(SoundEffect.PIPE);
     }
 
     public void playBossFightBackground() {
@@ -709,7 +889,7 @@ public class GameEngine implements Runnable {
     }
 
     public void playStomp() {
-        soundManager.playStomp();
+        playSound(SoundEffect.STOMP);
     }
 
 
@@ -738,7 +918,23 @@ public class GameEngine implements Runnable {
     }
 
     public static void main(String... args) {
-
+        GameSession session = GameSession.getMain();
+        if (Arrays.asList(args).contains("--report")) {
+            GameEngine engine = session.getEngine();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                if (engine.getLatencyTracer().getSampleCount() > 0) {
+                    System.out.println(engine.getLatencyTracer().report());
+                }
+                System.out.println(engine.getPools().report());
+            }));
+        }
+        if (Arrays.asList(args).contains("--hot-reload")) {
+            try {
+                session.getMapManager().enableHotReload(Paths.get("src/resources/media/maps"));
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
     }
 
 }
\ No newline at end of file
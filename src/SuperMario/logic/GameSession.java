@@ -0,0 +1,162 @@
+package SuperMario.logic;
+
+import SuperMario.graphic.manager.InputManager;
+import SuperMario.graphic.view.animation.AnimationClock;
+import SuperMario.graphic.view.animation.ParticleSystem;
+import SuperMario.input.SilentSound;
+import SuperMario.input.SoundManager;
+import SuperMario.input.SoundSink;
+import SuperMario.model.EntityPools;
+import SuperMario.model.EntityStore;
+import SuperMario.model.map.HitPoints;
+
+import java.awt.*;
+import java.util.Random;
+
+public class GameSession {
+
+    // threads a session starts (game loop, timers, loaders) inherit it
+    private static final InheritableThreadLocal<GameSession> bound = new InheritableThreadLocal<>();
+    private static volatile GameSession main;
+
+    private final boolean headless;
+    private final EntityStore entityStore;
+    private final EntityPools pools;
+    private final HitPoints hitPoints;
+    private final InputManager inputManager;
+    private final SoundSink sound;
+    private final UserData userData;
+    private final MapManager mapManager;
+    private final TickScheduler scheduler;
+    private final AnimationClock animationClock;
+    private final ParticleSystem particles;
+    private final GameEngine engine;
+    // prizes and boss attacks draw from here, so a seeded session replays the same choices
+    private final Random random = new Random();
+
+    private GameSession(boolean headless) {
+        this.headless = headless;
+
+        GameSession previous = bound.get();
+        bound.set(this);
+        try {
+            entityStore = new EntityStore();
+            pools = new EntityPools();
+            hitPoints = new HitPoints();
+            inputManager = new InputManager();
+            sound = headless ? new SilentSound() : new SoundManager();
+            userData = new UserData();
+            mapManager = new MapManager();
+            scheduler = new TickScheduler();
+            animationClock = new AnimationClock();
+            particles = new ParticleSystem();
+            engine = new GameEngine(this);
+        } finally {
+            restore(previous);
+        }
+    }
+
+    public static GameSession getMain() {
+        GameSession session = main;
+        if (session == null) {
+            synchronized (GameSession.class) {
+                if (main == null) {
+                    GameSession created = new GameSession(false);
+                    // key events and painting arrive on the event thread, it serves the window's session
+                    EventQueue.invokeLater(() -> bound.set(created));
+                    created.run(created.engine::start);
+                    main = created;
+                }
+                session = main;
+            }
+        }
+        return session;
+    }
+
+    public static GameSession createHeadless() {
+        return new GameSession(true);
+    }
+
+    public static GameSession current() {
+        GameSession session = bound.get();
+        if (session == null) {
+            throw new IllegalStateException("No game session is bound to " + Thread.currentThread().getName());
+        }
+        return session;
+    }
+
+    public void run(Runnable task) {
+        GameSession previous = bound.get();
+        bound.set(this);
+        try {
+            task.run();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    public void close() {
+        // the map streamer keeps a loader thread alive until it is shut down
+        mapManager.shutdown();
+    }
+
+    private static void restore(GameSession previous) {
+        if (previous == null) {
+            bound.remove();
+        } else {
+            bound.set(previous);
+        }
+    }
+
+    public boolean isHeadless() {
+        return headless;
+    }
+
+    public EntityStore getEntityStore() {
+        return entityStore;
+    }
+
+    public EntityPools getPools() {
+        return pools;
+    }
+
+    public HitPoints getHitPoints() {
+        return hitPoints;
+    }
+
+    public InputManager getInputManager() {
+        return inputManager;
+    }
+
+    public SoundSink getSound() {
+        return sound;
+    }
+
+    public UserData getUserData() {
+        return userData;
+    }
+
+    public MapManager getMapManager() {
+        return mapManager;
+    }
+
+    public GameEngine getEngine() {
+        return engine;
+    }
+
+    public TickScheduler getScheduler() {
+        return scheduler;
+    }
+
+    public AnimationClock getAnimationClock() {
+        return animationClock;
+    }
+
+    public ParticleSystem getParticles() {
+        return particles;
+    }
+
+    public Random getRandom() {
+        return random;
+    }
+}
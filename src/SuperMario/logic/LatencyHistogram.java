@@ -0,0 +1,79 @@
+package SuperMario.logic;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class LatencyHistogram {
+
+    // bucket i counts samples below 2^i microseconds, the last one takes everything above
+    private static final int BUCKETS = 32;
+
+    private final String name;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    public void record(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        buckets.incrementAndGet(bucket);
+        count.incrementAndGet();
+        sum.addAndGet(micros);
+
+        long previous = max.get();
+        while (micros > previous && !max.compareAndSet(previous, micros)) {
+            previous = max.get();
+        }
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public double getMeanMicros() {
+        long samples = count.get();
+        return samples == 0 ? 0 : (double) sum.get() / samples;
+    }
+
+    public long getMaxMicros() {
+        return max.get();
+    }
+
+    // upper bound of the bucket holding the given fraction of samples
+    public long getPercentileMicros(double fraction) {
+        long samples = count.get();
+        if (samples == 0) {
+            return 0;
+        }
+        long target = (long) Math.ceil(samples * fraction);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= target) {
+                return Math.min(1L << i, max.get());
+            }
+        }
+        return max.get();
+    }
+
+    public void clear() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-8s n=%d mean=%.0fus p50<=%dus p90<=%dus p99<=%dus max=%dus",
+                name, getCount(), getMeanMicros(), getPercentileMicros(0.5), getPercentileMicros(0.9),
+                getPercentileMicros(0.99), getMaxMicros());
+    }
+}
@@ -0,0 +1,112 @@
+package SuperMario.logic;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class LatencyTracer {
+
+    public static final int CAPACITY = 256;
+    private static final int MASK = CAPACITY - 1;
+
+    // key event -> drained by the game thread -> end of the tick that applied it -> first frame painted after that
+    private final LatencyHistogram queued = new LatencyHistogram("queue");
+    private final LatencyHistogram applied = new LatencyHistogram("tick");
+    private final LatencyHistogram presented = new LatencyHistogram("present");
+    private final LatencyHistogram total = new LatencyHistogram("total");
+
+    // events drained during the current tick, only touched by the game thread
+    private final long[] pending = new long[CAPACITY];
+    private int pendingCount;
+    private long drainTime;
+
+    // applied events waiting for a frame, single producer (game thread) and single consumer (render thread)
+    private final long[] eventTimes = new long[CAPACITY];
+    private final long[] tickTimes = new long[CAPACITY];
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    // headless sessions never paint, so nothing is handed over until a frame has been seen
+    private volatile boolean presenting;
+
+    public void drained(long eventTime, long now) {
+        queued.record(now - eventTime);
+        drainTime = now;
+        if (pendingCount < CAPACITY) {
+            pending[pendingCount++] = eventTime;
+        } else {
+            dropped.incrementAndGet();
+        }
+    }
+
+    public void tickFinished(long now) {
+        if (pendingCount == 0) {
+            return;
+        }
+        long t = tail.get();
+        for (int i = 0; i < pendingCount; i++) {
+            long eventTime = pending[i];
+            applied.record(now - drainTime);
+            if (!presenting) {
+                continue;
+            }
+            if (t - head.get() == CAPACITY) {
+                dropped.incrementAndGet();
+                continue;
+            }
+            int slot = (int) t & MASK;
+            eventTimes[slot] = eventTime;
+            tickTimes[slot] = now;
+            t++;
+        }
+        pendingCount = 0;
+        tail.lazySet(t);
+    }
+
+    // everything published before painting starts is reflected in the frame
+    public long frameStarted() {
+        presenting = true;
+        return tail.get();
+    }
+
+    public void framePresented(long index, long now) {
+        long h = head.get();
+        for (; h < index; h++) {
+            int slot = (int) h & MASK;
+            presented.record(now - tickTimes[slot]);
+            total.record(now - eventTimes[slot]);
+        }
+        head.lazySet(h);
+    }
+
+    public long getSampleCount() {
+        return queued.getCount();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public LatencyHistogram getQueued() {
+        return queued;
+    }
+
+    public LatencyHistogram getApplied() {
+        return applied;
+    }
+
+    public LatencyHistogram getPresented() {
+        return presented;
+    }
+
+    public LatencyHistogram getTotal() {
+        return total;
+    }
+
+    public String report() {
+        return "Input latency\n"
+                + "  " + queued + "\n"
+                + "  " + applied + "\n"
+                + "  " + presented + "\n"
+                + "  " + total + "\n"
+                + "  dropped=" + dropped.get();
+    }
+}
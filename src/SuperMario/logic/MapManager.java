@@ -2,9 +2,14 @@ package SuperMario.logic;
 
 import SuperMario.graphic.manager.InputManager;
 import SuperMario.graphic.manager.MapCreator;
+import SuperMario.graphic.manager.MapHotReloader;
+import SuperMario.graphic.manager.MapStreamer;
+import SuperMario.graphic.view.animation.ParticleSystem;
 import SuperMario.graphic.view.states.GameState;
 import SuperMario.graphic.view.states.MapSelection;
-import SuperMario.input.ImageLoader;
+import SuperMario.logic.collision.CollisionMatrix;
+import SuperMario.logic.collision.SweepAndPrune;
+import SuperMario.model.EntityKind;
 import SuperMario.model.GameObject;
 import SuperMario.model.enemy.bowser.Bomb;
 import SuperMario.model.enemy.bowser.Bowser;
@@ -13,7 +18,6 @@ import SuperMario.model.map.Map;
 import SuperMario.model.enemy.*;
 import SuperMario.model.hero.Hero;
 import SuperMario.model.obstacle.*;
-import SuperMario.model.prize.Coin;
 import SuperMario.model.prize.Prize;
 import SuperMario.model.prize.PrizeItems;
 import SuperMario.model.weapon.Axe;
@@ -21,14 +25,19 @@ import SuperMario.model.weapon.Fireball;
 
 
 import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Timer;
-import java.util.TimerTask;
 
 public class MapManager {
 
     private Map map;
     private Map crossover;
+    private MapStreamer streamer;
+    private volatile MapHotReloader hotReloader;
     private Hero hero;
     private double xBeforeCrossover;
     private double yBeforeCrossover;
@@ -36,22 +45,157 @@ public class MapManager {
     private double yHero;
     private double progressRate;
     private boolean isChecked = false;
-    private Timer grabTimer;
+    private double activationMargin = 4 * 48;
+    private Runnable grabTask;
     private final ArrayList<GameObject> toBeRemoved = new ArrayList<>();
-    private static final MapManager instance = new MapManager();
+    private final CollisionMatrix stompResponses = new CollisionMatrix();
+    private final CollisionMatrix weaponResponses = new CollisionMatrix();
+    private final CollisionMatrix enemyWeaponResponses = new CollisionMatrix();
+    private final SweepAndPrune broadPhase;
+
+    MapManager() {
+        registerCollisionResponses();
+        broadPhase = new SweepAndPrune(48, weaponResponses, enemyWeaponResponses);
+    }
+
+    private void registerCollisionResponses() {
+        stompResponses.register(EntityKind.HERO, EntityKind.BOWSER, (hero, enemy) -> {
+            Bowser bowser = (Bowser) enemy;
+            GameEngine.getInstance().playStomp();
+            hero.setFalling(false);
+            ((Hero) hero).jump();
+            damageBowser(bowser, bowser.getHp() > 3 ? (bowser.getHp() - 3) : 0);
+        });
+        stompResponses.register(EntityKind.HERO, EntityKind.KOOPA_TROOPA, (hero, enemy) -> {
+            KoopaTroopa koopaTroopa = ((KoopaTroopa) enemy);
+            if (!koopaTroopa.isHit()) {
+                koopaTroopa.setHit(true);
+                koopaTroopa.moveAfterHit();
+                ((Hero) hero).setTimerToRun();
+            } else {
+                acquirePoints(2);
+                toBeRemoved.add(enemy);
+                GameEngine.getInstance().playStomp();
+            }
+            hero.setFalling(false);
+            ((Hero) hero).jumpOnEnemy();
+        });
+        stompResponses.register(EntityKind.HERO, EntityKind.GOOMBA, (hero, enemy) -> {
+            acquirePoints(1);
+            toBeRemoved.add(enemy);
+            GameEngine.getInstance().playStomp();
+            hero.setFalling(false);
+            ((Hero) hero).jumpOnEnemy();
+        });
+
+        int[] heroWeapons = {EntityKind.FIREBALL, EntityKind.AXE};
+        for (int weapon : heroWeapons) {
+            weaponResponses.register(weapon, EntityKind.BOWSER, (object, enemy) ->
+                    damageBowser((Bowser) enemy, ((Bowser) enemy).getHp() - 1));
+            weaponResponses.register(weapon, EntityKind.GOOMBA, (object, enemy) -> killEnemy(enemy, 1));
+            weaponResponses.register(weapon, EntityKind.KOOPA_TROOPA, (object, enemy) -> hitKoopaTroopa((KoopaTroopa) enemy, 2));
+            weaponResponses.register(weapon, EntityKind.SPINY, (object, enemy) -> killEnemy(enemy, 3));
+            weaponResponses.register(weapon, EntityKind.PIRANHA, (object, enemy) -> killEnemy(enemy, 1));
+        }
+
+        int[] smallEnemies = {EntityKind.GOOMBA, EntityKind.SPINY, EntityKind.PIRANHA};
+        enemyWeaponResponses.register(EntityKind.FIRE, smallEnemies, (fire, enemy) -> {
+            killEnemy(enemy, 0);
+            toBeRemoved.add(fire);
+        });
+        enemyWeaponResponses.register(EntityKind.FIRE, EntityKind.KOOPA_TROOPA, (fire, enemy) -> {
+            hitKoopaTroopa((KoopaTroopa) enemy, 0);
+            toBeRemoved.add(fire);
+        });
+        enemyWeaponResponses.register(EntityKind.FIRE, EntityKind.HERO, (fire, hero) -> {
+            toBeRemoved.add(fire);
+            ((Hero) hero).onTouchEnemy(GameEngine.getInstance(), 0);
+        });
+
+        enemyWeaponResponses.register(EntityKind.BOMB, EntityKind.BOWSER, (object, enemy) -> {
+            Bomb bomb = (Bomb) object;
+            if (bomb.isExploded()) {
+                damageBowser((Bowser) enemy, ((Bowser) enemy).getHp() - 1);
+                if (bomb.hasIntersect()) {
+                    toBeRemoved.add(enemy);
+                }
+            }
+        });
+        enemyWeaponResponses.register(EntityKind.BOMB, smallEnemies, (bomb, enemy) -> {
+            killEnemy(enemy, 0);
+            touchBomb((Bomb) bomb, enemy);
+        });
+        enemyWeaponResponses.register(EntityKind.BOMB, EntityKind.KOOPA_TROOPA, (bomb, enemy) -> {
+            hitKoopaTroopa((KoopaTroopa) enemy, 0);
+            touchBomb((Bomb) bomb, enemy);
+        });
+        enemyWeaponResponses.register(EntityKind.BOMB, EntityKind.HERO, (object, hero) -> {
+            Bomb bomb = (Bomb) object;
+            if (!bomb.hasIntersect()) {
+                bomb.setHasIntersect(true);
+            } else if (bomb.isExploded()) {
+                ((Hero) hero).onTouchEnemy(GameEngine.getInstance(), 0);
+                bomb.setTimeToVanish(true);
+            }
+        });
+
+        for (int kind = 0; kind < EntityKind.COUNT; kind++) {
+            if (EntityKind.isObstacle(kind)) {
+                enemyWeaponResponses.register(EntityKind.FIRE, kind, (fire, obstacle) -> toBeRemoved.add(fire));
+                enemyWeaponResponses.register(EntityKind.BOMB, kind, (bomb, obstacle) -> touchBomb((Bomb) bomb, obstacle));
+            }
+        }
+    }
+
+    private void killEnemy(GameObject enemy, int points) {
+        if (points > 0) {
+            acquirePoints(points);
+        }
+        toBeRemoved.add(enemy);
+    }
+
+    private void hitKoopaTroopa(KoopaTroopa koopaTroopa, int points) {
+        if (!koopaTroopa.isHit()) {
+            koopaTroopa.setHit(true);
+            koopaTroopa.moveAfterHit();
+        } else {
+            killEnemy(koopaTroopa, points);
+        }
+    }
 
-    private MapManager() {
+    private void damageBowser(Bowser bowser, int hp) {
+        bowser.setHp(hp);
+        double centerX = bowser.getX() + bowser.getWidth() / 2.0, centerY = bowser.getY() + bowser.getHeight() / 2.0;
+        if (checkIfBowserDies()) {
+            ParticleSystem.getInstance().emitExplosion(centerX, centerY, 256, 10);
+            toBeRemoved.add(bowser);
+            map.setBowser(null);
+            GameEngine engine = GameEngine.getInstance();
+            engine.playBowserDies();
+            engine.stopBossFightBackground();
+            engine.playStageClear();
+        } else {
+            ParticleSystem.getInstance().emitExplosion(centerX, centerY, 16, 4);
+        }
+    }
+
+    private void touchBomb(Bomb bomb, GameObject object) {
+        if (!bomb.hasIntersect()) {
+            bomb.setHasIntersect(true);
+        } else if (bomb.isExploded()) {
+            toBeRemoved.add(object);
+        }
     }
 
     public static MapManager getInstance() {
-        return instance;
+        return GameSession.current().getMapManager();
     }
 
-    public void updateLocations() {
+    public void updateLocations(GameEngine engine) {
         if (map == null) {
             return;
         }
-        map.updateLocations();
+        map.updateLocations(engine);
         if (getMap().getEndPoint() != null) {
             progressRate = getHero().getX() / getMap().getEndPoint().getX();
         } else {
@@ -59,11 +203,28 @@ public class MapManager {
         }
     }
 
-    public void updateLocationsForCrossover() {
+    public void updateActivation(double left, double right) {
+        if (map == null) {
+            return;
+        }
+        if (hotReloader != null) {
+            applyHotReload();
+        }
+        if (streamer != null) {
+            streamer.update(left - activationMargin, right + activationMargin);
+        }
+        map.updateActivation(left - activationMargin, right + activationMargin);
+    }
+
+    public void setActivationMargin(double activationMargin) {
+        this.activationMargin = activationMargin;
+    }
+
+    public void updateLocationsForCrossover(GameEngine engine) {
         if (crossover == null) {
             return;
         }
-        crossover.updateLocationsForCrossover();
+        crossover.updateLocationsForCrossover(engine);
     }
 
     public void resetCurrentMap(GameEngine engine) {
@@ -81,27 +242,86 @@ public class MapManager {
     }
 
     public void createCrossover(String path, Hero hero) {
-        ImageLoader.getInstance().setHeroType(hero.getType());
         MapCreator mapCreator = new MapCreator();
+        Map previous = crossover;
         crossover = mapCreator.createCrossOver("/maps/" + path, hero);
+        disposeMap(previous);
+    }
+
+    public void enableHotReload(Path directory) throws IOException {
+        hotReloader = new MapHotReloader(directory);
+    }
+
+    private void applyHotReload() {
+        String path = map.getPath();
+        MapHotReloader.Reload reload = hotReloader.poll(path);
+        if (reload == null || streamer == null) {
+            return;
+        }
+
+        BufferedImage previous = reload.getPrevious();
+        BufferedImage image = reload.getImage();
+        // a resized map no longer lines up with the loaded chunks, it shows up when the level is loaded again
+        if (previous != null && previous.getWidth() == image.getWidth() && previous.getHeight() == image.getHeight()) {
+            streamer.patch(previous, image);
+        }
+    }
+
+    private void dropHotReload(String path) {
+        if (hotReloader != null) {
+            // the map is about to be read from the cache, which already holds the new image
+            hotReloader.poll(path);
+        }
     }
 
     public boolean createMap(String path) {
+        dropHotReload(path);
         MapCreator mapCreator = new MapCreator();
+        Map previous = map;
         map = mapCreator.createMap("/maps/" + path);
+        setStreamer(mapCreator.getStreamer());
+        disposeMap(previous);
         hero = map.getHero();
+        if (map.getBowser() != null) {
+            // the hero is only created once the whole image is read, after bowser was placed
+            map.getBowser().setHero(hero);
+        }
         return map != null;
     }
 
     public boolean createMap(String path, Hero hero) {
-        ImageLoader.getInstance().setHeroType(hero.getType());
+        dropHotReload(path);
         MapCreator mapCreator = new MapCreator(hero);
+        Map previous = map;
         map = mapCreator.createMap("/maps/" + path);
+        setStreamer(mapCreator.getStreamer());
         map.setHero(hero);
+        disposeMap(previous);
         setHero(hero);
         return map != null;
     }
 
+    private void setStreamer(MapStreamer streamer) {
+        if (this.streamer != null) {
+            this.streamer.shutdown();
+        }
+        this.streamer = streamer;
+    }
+
+    public void shutdown() {
+        setStreamer(null);
+    }
+
+    private void disposeMap(Map previous) {
+        if (previous != null && previous != map) {
+            if (map != null && previous.getHero() == map.getHero()) {
+                // the hero carries over to the new map, only the rest of the old one goes
+                previous.setHero(null);
+            }
+            previous.dispose();
+        }
+    }
+
     public void acquirePoints(int point) {
         map.getHero().acquirePoints(point);
     }
@@ -124,18 +344,19 @@ public class MapManager {
 
     public void fire() {
         Fireball fireball = getHero().fire();
+        GameEngine engine = GameEngine.getInstance();
         Map currentMap;
-        if (GameEngine.getInstance().getGameState() == GameState.RUNNING) {
+        if (engine.getGameState() == GameState.RUNNING) {
             currentMap = map;
         } else {
             currentMap = crossover;
         }
         if (fireball != null) {
             currentMap.addFireball(fireball);
-            GameEngine.getInstance().playFireball();
+            engine.playFireball();
 
             if (currentMap.getBowser() != null) {
-                currentMap.getBowser().canJump(Math.abs(currentMap.getBowser().getX() - fireball.getX()) >= (8 * 48));
+                currentMap.getBowser().canJump(Math.abs(currentMap.getBowser().getX() - fireball.getX()) >= (8 * 48), engine);
             }
         }
     }
@@ -164,8 +385,14 @@ public class MapManager {
 
     private boolean checkIfBowserDies() {
         if (map.getBowser().getHp() <= 0) {
-            map.getAllObstacles().removeIf(brick -> brick instanceof GroundBrick);
-            map.getGroundBricks().removeIf(brick -> brick instanceof GroundBrick);
+            ParticleSystem particles = ParticleSystem.getInstance();
+            for (Obstacle brick : map.getGroundBricks()) {
+                if (brick.getKind() == EntityKind.GROUND_BRICK) {
+                    particles.emitBrickBreak(brick.getX(), brick.getY(), brick.getWidth());
+                }
+            }
+            map.getAllObstacles().removeIf(brick -> brick.getKind() == EntityKind.GROUND_BRICK);
+            map.getGroundBricks().removeIf(brick -> brick.getKind() == EntityKind.GROUND_BRICK);
             map.stopBurning();
             GameEngine.getInstance().playBreakBrick();
             return true;
@@ -204,7 +431,8 @@ public class MapManager {
     }
 
     public int passMission() {
-        if (hero.getX() >= map.getEndPoint().getX() && !map.getEndPoint().isTouched()) {
+        // the boss fight has no flag, it is passed at the axe
+        if (map.getEndPoint() != null && hero.getX() >= map.getEndPoint().getX() && !map.getEndPoint().isTouched()) {
             map.getEndPoint().setTouched(true);
             GameEngine.getInstance().playFlagPole();
             int height = (int) getHero().getY();
@@ -215,7 +443,7 @@ public class MapManager {
     }
 
     public boolean endLevel() {
-        return hero.getX() >= map.getEndPoint().getX() + 320;
+        return map.getEndPoint() != null && hero.getX() >= map.getEndPoint().getX() + 320;
     }
 
     public void checkCollisions(GameEngine engine) {
@@ -253,7 +481,7 @@ public class MapManager {
         } else {
             currentMap = map;
         }
-        ArrayList<Obstacle> obstacles = currentMap.getAllObstacles();
+        ArrayList<Obstacle> obstacles = currentMap.getObstacles(object.getBounds());
         Rectangle bottomBounds = object.getBottomBounds();
 
         boolean toRight = object.isToRight();
@@ -278,7 +506,7 @@ public class MapManager {
             Rectangle obstacleTopBounds = obstacle.getTopBounds();
             if (bottomBounds.intersects(obstacleTopBounds)) {
 
-                if (!(obstacle instanceof Hole)) {
+                if (obstacle.getKind() != EntityKind.HOLE) {
                     object.setY(obstacle.getY() - object.getDimension().height + 1);
                     object.setFalling(false);
                     object.setVelY(0);
@@ -295,20 +523,20 @@ public class MapManager {
             if (topBounds.intersects(obstacleBottomBounds)) {
                 object.setVelY(0);
                 object.setY(obstacle.getY() + obstacle.getDimension().height);
-                if (obstacle instanceof Brick) {
+                if (EntityKind.isBrick(obstacle.getKind())) {
                     ((Brick) obstacle).reveal(GameEngine.getInstance());
                 }
             }
         }
 
         if (object.getY() + object.getDimension().height >= map.getBottomBorder() - (2 * 48)) {
-            if (object instanceof Bowser && !((Bowser) object).hasTouchedGround()) {
+            if (object.getKind() == EntityKind.BOWSER && !((Bowser) object).hasTouchedGround()) {
                 GameEngine.getInstance().shakeCamera();
                 if (hero.getBottomBounds().getY() >= 720 - (3 * 48)) {
                     hero.onTouchEnemy(GameEngine.getInstance(), 0);
                 }
                 ((Bowser) object).setHasTouchedGround(true);
-            } else if (object instanceof Bomb) {
+            } else if (object.getKind() == EntityKind.BOMB) {
                 ((Bomb) object).setHasIntersect(true);
             }
             object.setFalling(false);
@@ -323,7 +551,7 @@ public class MapManager {
         } else {
             currentMap = map;
         }
-        ArrayList<Obstacle> obstacles = currentMap.getAllObstacles();
+        ArrayList<Obstacle> obstacles = currentMap.getObstacles(hero.getBounds());
         ArrayList<Enemy> enemies = currentMap.getEnemies();
 
         Rectangle heroBottomBounds = hero.getBottomBounds();
@@ -331,16 +559,16 @@ public class MapManager {
         boolean heroHasBottomIntersection = false;
 
         for (Obstacle obstacle : obstacles) {
+            int kind = obstacle.getKind();
 
-
-            if (obstacle instanceof Brick && (int) hero.getBottomBounds().getY() >= 720 - (3 * 48)) {
+            if (EntityKind.isBrick(kind) && (int) hero.getBottomBounds().getY() >= 720 - (3 * 48)) {
                 ((Brick) obstacle).setTimer(0);
             }
 
             Rectangle obstacleTopBounds = obstacle.getTopBounds();
             if (heroBottomBounds.intersects(obstacleTopBounds)) {
                 if (engine.getUserData().getWorldNumber() == MapSelection.BOSS_FIGHT.getWorldNumber()) {
-                    if (obstacle instanceof Brick) {
+                    if (EntityKind.isBrick(kind)) {
                         if (((Brick) obstacle).isTimeToBreak()) {
                             toBeRemoved.add(obstacle);
                         }
@@ -348,16 +576,16 @@ public class MapManager {
                 }
 
 
-                if (!(obstacle instanceof Hole)) {
+                if (kind != EntityKind.HOLE) {
                     hero.setY(obstacle.getY() - hero.getDimension().height + 1);
                     hero.setFalling(false);
                     hero.setVelY(0);
                     heroHasBottomIntersection = true;
-                    if (obstacle instanceof Slime) {
+                    if (kind == EntityKind.SLIME) {
                         ((Slime) obstacle).setOnTouch(true);
                         hero.jumpOnSlime();
                     }
-                    if (obstacle instanceof CrossoverTunnel && !((CrossoverTunnel) obstacle).isRevealed() && InputManager.getInstance().isDown()) {
+                    if (kind == EntityKind.CROSSOVER_TUNNEL && !((CrossoverTunnel) obstacle).isRevealed() && InputManager.getInstance().isDown()) {
                         if (engine.getGameState() == GameState.RUNNING) {
                             engine.playPipe();
                             xBeforeCrossover = hero.getX();
@@ -386,38 +614,11 @@ public class MapManager {
         hero.setFalling(!heroHasBottomIntersection);
 
         for (Enemy enemy : enemies) {
-            Rectangle enemyTopBounds = enemy.getTopBounds();
-            if (heroBottomBounds.intersects(enemyTopBounds) && !(enemy instanceof Spiny) && !(enemy instanceof Piranha)) {
-                if (enemy instanceof Bowser) {
-                    int newHP = ((Bowser) enemy).getHp() > 3 ? (((Bowser) enemy).getHp() - 3) : 0;
-                    ((Bowser) enemy).setHp(newHP);
-                    engine.playStomp();
-                    hero.setFalling(false);
-                    hero.jump();
-                    if (checkIfBowserDies()) {
-                        toBeRemoved.add(enemy);
-                        map.setBowser(null);
-                    }
-                } else if (enemy instanceof KoopaTroopa) {
-                    KoopaTroopa koopaTroopa = ((KoopaTroopa) enemy);
-                    if (!koopaTroopa.isHit()) {
-                        koopaTroopa.setHit(true);
-                        koopaTroopa.moveAfterHit();
-                        hero.setTimerToRun();
-                    } else {
-                        acquirePoints(2);
-                        toBeRemoved.add(enemy);
-                        engine.playStomp();
-                    }
-                    hero.setFalling(false);
-                    hero.jumpOnEnemy();
-                } else {
-                    acquirePoints(1);
-                    toBeRemoved.add(enemy);
-                    engine.playStomp();
-                    hero.setFalling(false);
-                    hero.jumpOnEnemy();
-                }
+            if (enemy.isAsleep()) {
+                continue;
+            }
+            if (stompResponses.hasHandler(EntityKind.HERO, enemy.getKind()) && heroBottomBounds.intersects(enemy.getTopBounds())) {
+                stompResponses.dispatch(hero, enemy);
             }
         }
 
@@ -442,21 +643,22 @@ public class MapManager {
             currentMap = map;
         }
 
-        ArrayList<Obstacle> obstacles = currentMap.getAllObstacles();
+        ArrayList<Obstacle> obstacles = currentMap.getObstacles(hero.getBounds());
         Rectangle heroTopBounds = hero.getTopBounds();
 
         for (Obstacle obstacle : obstacles) {
+            int kind = obstacle.getKind();
             Rectangle obstacleBottomBounds = obstacle.getBottomBounds();
-            if (!(obstacle instanceof Hole) && !(obstacle instanceof CheckPoint) && heroTopBounds.intersects(obstacleBottomBounds)) {
+            if (kind != EntityKind.HOLE && kind != EntityKind.CHECK_POINT && heroTopBounds.intersects(obstacleBottomBounds)) {
                 hero.setVelY(0);
                 hero.setY(obstacle.getY() + obstacle.getDimension().height);
-                if (obstacle instanceof Brick) {
+                if (EntityKind.isBrick(kind)) {
                     Prize prize = ((Brick) obstacle).reveal(engine);
                     if (prize != null) {
                         currentMap.addRevealedPrize(prize);
                     }
                 }
-            } else if (obstacle instanceof CheckPoint && heroTopBounds.intersects(obstacleBottomBounds)) {
+            } else if (kind == EntityKind.CHECK_POINT && heroTopBounds.intersects(obstacleBottomBounds)) {
                 if (!((CheckPoint) obstacle).isRevealed()) {
                     engine.pauseInCheckPoint();
                 } else {
@@ -475,7 +677,7 @@ public class MapManager {
             currentMap = map;
         }
 
-        ArrayList<Obstacle> obstacles = currentMap.getAllObstacles();
+        ArrayList<Obstacle> obstacles = currentMap.getObstacles(hero.getBounds());
         ArrayList<Enemy> enemies = currentMap.getEnemies();
 
         boolean heroDies = false;
@@ -497,34 +699,34 @@ public class MapManager {
         }
 
         for (Enemy enemy : enemies) {
+            if (enemy.isAsleep()) {
+                continue;
+            }
             Rectangle enemyBounds = enemy.getBounds();
             if (heroBounds.intersects(enemyBounds) && !hero.isFalling()) {
 
+                int kind = enemy.getKind();
                 if (hero.ifTookStar()) {
-                    if (enemy instanceof Bowser && ((Bowser) enemy).isGrabAttackOn()) {
+                    if (kind == EntityKind.BOWSER && ((Bowser) enemy).isGrabAttackOn()) {
                         if (!hero.isGrabbed()) {
                             hero.setGrabbed(true);
                             map.getBowser().stopMoving();
                             ((Bowser) enemy).setCanHurt(false);
                             setTimerForGrabAttack();
                         }
-                    } else if (enemy instanceof Bowser && ((Bowser) enemy).canHurt()) {
+                    } else if (kind == EntityKind.BOWSER && ((Bowser) enemy).canHurt()) {
                         heroDies = hero.onTouchEnemy(engine, calculateLosingCoins());
                     } else {
                         heroDies = hero.onTouchEnemy(engine, calculateLosingCoins());
-                        if (enemy instanceof KoopaTroopa) {
+                        if (kind == EntityKind.KOOPA_TROOPA) {
                             ((KoopaTroopa) enemy).setHit(true);
-                        } else if (enemy instanceof Goomba) {
+                        } else if (kind == EntityKind.GOOMBA) {
                             toBeRemoved.add(enemy);
                         }
                     }
                 } else {
-                    if (enemy instanceof Bowser) {
-                        ((Bowser) enemy).setHp(((Bowser) enemy).getHp() - 1);
-                        if (checkIfBowserDies()) {
-                            toBeRemoved.add(enemy);
-                            map.setBowser(null);
-                        }
+                    if (kind == EntityKind.BOWSER) {
+                        damageBowser((Bowser) enemy, ((Bowser) enemy).getHp() - 1);
                     } else {
                         toBeRemoved.add(enemy);
                     }
@@ -548,8 +750,8 @@ public class MapManager {
             hero.escapeFromGrabAttack(map.getBowser().isToRight());
             hero.setNumberOfTryToEscape(0);
 
-            grabTimer.cancel();
-            TimerTask task = new TimerTask() {
+            TickScheduler.getInstance().cancel(grabTask);
+            Runnable task = new Runnable() {
                 @Override
                 public void run() {
                     map.getBowser().setCanHurt(true);
@@ -558,8 +760,7 @@ public class MapManager {
                     map.getBowser().setGrabAttackOn(false);
                 }
             };
-            Timer timer = new Timer();
-            timer.schedule(task, 4000);
+            TickScheduler.getInstance().schedule(task, 4000);
         } else {
             map.getBowser().setCoolDownFinished(false);
         }
@@ -567,7 +768,7 @@ public class MapManager {
 
 
     private void setTimerForGrabAttack() {
-        TimerTask task = new TimerTask() {
+        Runnable task = new Runnable() {
             @Override
             public void run() {
                 if (hero.isGrabbed()) {
@@ -577,20 +778,19 @@ public class MapManager {
                     hero.setNumberOfTryToEscape(0);
                     map.getBowser().moveNormal(map.getBowser().isToRight());
                     map.getBowser().setGrabAttackOn(false);
-                    TimerTask task = new TimerTask() {
+                    Runnable task = new Runnable() {
                         @Override
                         public void run() {
                             map.getBowser().setCanHurt(true);
                             map.getBowser().setCoolDownFinished(true);
                         }
                     };
-                    Timer timer = new Timer();
-                    timer.schedule(task, 4000);
+                    TickScheduler.getInstance().schedule(task, 4000);
                 }
             }
         };
-        grabTimer = new Timer();
-        grabTimer.schedule(task, 5000);
+        grabTask = task;
+        TickScheduler.getInstance().schedule(grabTask, 5000);
     }
 
     private void checkEnemyCollisions() {
@@ -601,12 +801,11 @@ public class MapManager {
             currentMap = map;
         }
 
-        ArrayList<Obstacle> obstacles = currentMap.getAllObstacles();
         ArrayList<Enemy> enemies = currentMap.getEnemies();
 
 
         for (Enemy enemy : enemies) {
-            if (enemy instanceof Spiny && ((getHero().getY() + getHero().getStyle().getHeight()) == (enemy.getY() + enemy.getStyle().getHeight() + 1))) {
+            if (!enemy.isAsleep() && enemy.getKind() == EntityKind.SPINY && ((getHero().getY() + getHero().getStyle().getHeight()) == (enemy.getY() + enemy.getStyle().getHeight() + 1))) {
                 Spiny spiny = (Spiny) enemy;
                 if (Math.abs(spiny.getX() - getHero().getX()) <= 192) {
                     spiny.moveFaster();
@@ -617,10 +816,10 @@ public class MapManager {
         }
 
         for (Enemy enemy : enemies) {
-            if (!(enemy instanceof Piranha)) {
+            if (!enemy.isAsleep() && enemy.getKind() != EntityKind.PIRANHA) {
                 boolean standsOnBrick = false;
 
-                for (Obstacle obstacle : obstacles) {
+                for (Obstacle obstacle : currentMap.getObstacles(enemy.getBounds())) {
                     Rectangle enemyBounds = enemy.getLeftBounds();
                     Rectangle obstacleRightBounds = obstacle.getRightBounds();
 
@@ -665,17 +864,16 @@ public class MapManager {
         }
 
         ArrayList<Prize> prizes = currentMap.getRevealedPrizes();
-        ArrayList<Obstacle> obstacles = currentMap.getAllObstacles();
 
         for (Prize prize : prizes) {
-            if (prize instanceof PrizeItems) {
+            if (!((GameObject) prize).isAsleep() && ((GameObject) prize).getKind() == EntityKind.PRIZE_ITEM) {
                 PrizeItems boost = (PrizeItems) prize;
                 Rectangle prizeBottomBounds = boost.getBottomBounds();
                 Rectangle prizeRightBounds = boost.getRightBounds();
                 Rectangle prizeLeftBounds = boost.getLeftBounds();
                 boost.setFalling(true);
 
-                for (Obstacle obstacle : obstacles) {
+                for (Obstacle obstacle : currentMap.getObstacles(boost.getBounds())) {
                     Rectangle obstacleBounds;
 
                     if (boost.isFalling()) {
@@ -729,11 +927,14 @@ public class MapManager {
 
         Rectangle heroBounds = hero.getBounds();
         for (Prize prize : prizes) {
+            if (((GameObject) prize).isAsleep()) {
+                continue;
+            }
             Rectangle prizeBounds = prize.getBounds();
             if (prizeBounds.intersects(heroBounds)) {
                 prize.onTouch(getHero(), engine);
                 toBeRemoved.add((GameObject) prize);
-            } else if (prize instanceof Coin) {
+            } else if (((GameObject) prize).getKind() == EntityKind.COIN) {
                 prize.onTouch(getHero(), engine);
             }
         }
@@ -761,10 +962,65 @@ public class MapManager {
             checkWeaponCollision(fireball);
         }
 
+        checkDynamicContacts(currentMap, axe);
+
         removeObjects(toBeRemoved);
 
     }
 
+    private void checkDynamicContacts(Map currentMap, Axe axe) {
+        broadPhase.add(hero);
+        for (Enemy enemy : currentMap.getEnemies()) {
+            if (!enemy.isAsleep()) {
+                broadPhase.add(enemy);
+            }
+        }
+        for (Fireball fireball : currentMap.getFireballs()) {
+            broadPhase.add(fireball);
+        }
+        if (axe != null) {
+            broadPhase.add(axe);
+        }
+
+        Bowser bowser = currentMap.getBowser();
+        if (bowser != null) {
+            for (Fire fire : bowser.getFire()) {
+                broadPhase.add(fire);
+            }
+            for (Bomb bomb : bowser.getBomb()) {
+                broadPhase.add(bomb);
+            }
+        }
+
+        int pairs = broadPhase.sweep();
+        for (int i = 0; i < pairs; i++) {
+            GameObject first = broadPhase.getFirst(i);
+            GameObject second = broadPhase.getSecond(i);
+            if (!checkContact(first, second)) {
+                checkContact(second, first);
+            }
+        }
+    }
+
+    private boolean checkContact(GameObject object, GameObject other) {
+        if (weaponResponses.hasHandler(object.getKind(), other.getKind())) {
+            if (object.getBounds().intersects(other.getBounds()) && weaponResponses.dispatch(object, other)) {
+                GameEngine.getInstance().playKickEnemy();
+                toBeRemoved.add(object);
+            }
+            return true;
+        }
+
+        if (enemyWeaponResponses.hasHandler(object.getKind(), other.getKind())) {
+            if (getEnemyWeaponBounds(object).intersects(other.getBounds())) {
+                enemyWeaponResponses.dispatch(object, other);
+            }
+            return true;
+        }
+
+        return false;
+    }
+
     private void checkWeaponCollision(GameObject object) {
 
         Map currentMap;
@@ -774,15 +1030,14 @@ public class MapManager {
             currentMap = map;
         }
 
-        ArrayList<Enemy> enemies = currentMap.getEnemies();
-        ArrayList<Obstacle> obstacles = currentMap.getAllObstacles();
-
         Rectangle objectBounds = object.getBounds();
+        ArrayList<Obstacle> obstacles = currentMap.getObstacles(objectBounds);
+        int kind = object.getKind();
 
 
         Bowser bowser = currentMap.getBowser();
 
-        if (object instanceof Fireball && bowser != null) {
+        if (kind == EntityKind.FIREBALL && bowser != null) {
             double distance;
             if (object.isToRight() && !bowser.isToRight()) {
                 distance = bowser.getX() - object.getX();
@@ -797,40 +1052,7 @@ public class MapManager {
             }
         }
 
-        for (Enemy enemy : enemies) {
-            Rectangle enemyBounds = enemy.getBounds();
-            if (objectBounds.intersects(enemyBounds)) {
-                if (enemy instanceof Bowser) {
-                    ((Bowser) enemy).setHp(((Bowser) enemy).getHp() - 1);
-                    if (checkIfBowserDies()) {
-                        toBeRemoved.add(enemy);
-                        map.setBowser(null);
-                    }
-                } else if (enemy instanceof Goomba) {
-                    acquirePoints(1);
-                    toBeRemoved.add(enemy);
-                } else if (enemy instanceof KoopaTroopa) {
-                    KoopaTroopa koopaTroopa = ((KoopaTroopa) enemy);
-                    if (!koopaTroopa.isHit()) {
-                        koopaTroopa.setHit(true);
-                        koopaTroopa.moveAfterHit();
-                    } else {
-                        acquirePoints(2);
-                        toBeRemoved.add(enemy);
-                    }
-                } else if (enemy instanceof Spiny) {
-                    acquirePoints(3);
-                    toBeRemoved.add(enemy);
-                } else {
-                    acquirePoints(1);
-                    toBeRemoved.add(enemy);
-                }
-                GameEngine.getInstance().playKickEnemy();
-                toBeRemoved.add(object);
-            }
-        }
-
-        if (object instanceof Fireball || (object instanceof Axe && hero.getAxe().isReleased())) {
+        if (kind == EntityKind.FIREBALL || (kind == EntityKind.AXE && hero.getAxe().isReleased())) {
             for (Obstacle obstacle : obstacles) {
                 Rectangle obstacleBounds = obstacle.getBounds();
                 if (objectBounds.intersects(obstacleBounds)) {
@@ -863,93 +1085,36 @@ public class MapManager {
             currentMap = map;
         }
 
-        ArrayList<Enemy> enemies = currentMap.getEnemies();
-        ArrayList<Obstacle> obstacles = currentMap.getAllObstacles();
-
-        Rectangle objectBounds = object.getBounds();
-        if (object instanceof Bomb && ((Bomb) object).isExploded()) {
-            objectBounds.y -= 48;
-            objectBounds.x -= 48;
-            objectBounds.height += 48;
-            objectBounds.width += 48;
-        }
-
-        for (Enemy enemy : enemies) {
-            Rectangle enemyBounds = enemy.getBounds();
-            if (objectBounds.intersects(enemyBounds)) {
-                if (enemy instanceof Bowser) {
-                    if (object instanceof Bomb && ((Bomb) object).isExploded()) {
-                        ((Bowser) enemy).setHp(((Bowser) enemy).getHp() - 1);
-                        if (checkIfBowserDies()) {
-                            toBeRemoved.add(enemy);
-                            map.setBowser(null);
-                        }
-                    }
-                } else if (enemy instanceof Goomba) {
-                    toBeRemoved.add(enemy);
-                } else if (enemy instanceof KoopaTroopa) {
-                    KoopaTroopa koopaTroopa = ((KoopaTroopa) enemy);
-                    if (!koopaTroopa.isHit()) {
-                        koopaTroopa.setHit(true);
-                        koopaTroopa.moveAfterHit();
-                    } else {
-                        toBeRemoved.add(enemy);
-                    }
-                } else if (enemy instanceof Spiny) {
-                    toBeRemoved.add(enemy);
-                } else if (enemy instanceof Piranha) {
-                    toBeRemoved.add(enemy);
-                }
-
-                if (object instanceof Bomb) {
-                    if (!((Bomb) object).hasIntersect() && !(enemy instanceof Bowser)) {
-                        ((Bomb) object).setHasIntersect(true);
-                    } else if (((Bomb) object).hasIntersect() && ((Bomb) object).isExploded()) {
-                        toBeRemoved.add(enemy);
-                    }
-                } else if (object instanceof Fire && !(enemy instanceof Bowser)) {
-                    toBeRemoved.add(object);
-                }
-            }
-        }
-
-        if (objectBounds.intersects(hero.getBounds())) {
-            if (object instanceof Bomb) {
-                if (!((Bomb) object).hasIntersect()) {
-                    ((Bomb) object).setHasIntersect(true);
-                } else if (((Bomb) object).hasIntersect() && ((Bomb) object).isExploded()) {
-                    hero.onTouchEnemy(GameEngine.getInstance(), 0);
-                    ((Bomb) object).setTimeToVanish(true);
-                }
-            } else if (object instanceof Fire) {
-                toBeRemoved.add(object);
-                hero.onTouchEnemy(GameEngine.getInstance(), 0);
-            }
-        }
+        int kind = object.getKind();
+        Rectangle objectBounds = getEnemyWeaponBounds(object);
+        ArrayList<Obstacle> obstacles = currentMap.getObstacles(objectBounds);
 
         for (Obstacle obstacle : obstacles) {
             Rectangle obstacleBounds = obstacle.getBounds();
-            if (object instanceof Fire) {
+            if (kind == EntityKind.FIRE) {
                 obstacleBounds = object.isToRight() ? obstacle.getLeftBounds() : obstacle.getRightBounds();
             }
             if (objectBounds.intersects(obstacleBounds)) {
-                if (object instanceof Bomb) {
-                    if (!((Bomb) object).hasIntersect()) {
-                        ((Bomb) object).setHasIntersect(true);
-                    } else if (((Bomb) object).hasIntersect() && ((Bomb) object).isExploded()) {
-                        toBeRemoved.add(obstacle);
-                    }
-                } else if (object instanceof Fire) {
-                    toBeRemoved.add(object);
-                }
+                enemyWeaponResponses.dispatch(object, obstacle);
             }
         }
 
-        if (object instanceof Bomb && ((Bomb) object).isTimeToVanish()) {
+        if (kind == EntityKind.BOMB && ((Bomb) object).isTimeToVanish()) {
             toBeRemoved.add(object);
         }
     }
 
+    private Rectangle getEnemyWeaponBounds(GameObject object) {
+        Rectangle objectBounds = object.getBounds();
+        if (object.getKind() == EntityKind.BOMB && ((Bomb) object).isExploded()) {
+            objectBounds.y -= 48;
+            objectBounds.x -= 48;
+            objectBounds.height += 48;
+            objectBounds.width += 48;
+        }
+        return objectBounds;
+    }
+
 
     private void removeObjects(ArrayList<GameObject> list) {
         if (list == null) {
@@ -964,26 +1129,13 @@ public class MapManager {
         }
 
         for (GameObject object : list) {
-            if (object instanceof Fireball) {
-                currentMap.removeFireball((Fireball) object);
-            } else if (object instanceof Enemy) {
-                currentMap.removeEnemy((Enemy) object);
-            } else if (object instanceof Coin || object instanceof PrizeItems) {
-                currentMap.removePrize((Prize) object);
-            } else if (object instanceof Brick) {
-                currentMap.removeObstacle((Brick) object);
-            } else if (object instanceof Fire) {
-                if (map.getBowser() != null) {
-                    currentMap.getBowser().getFire().remove(object);
-                }
-            } else if (object instanceof Bomb) {
-                if (map.getBowser() != null) {
-                    currentMap.getBowser().getBomb().remove(object);
-                }
-            } else if (object instanceof Axe) {
+            if (object.getKind() == EntityKind.AXE) {
                 hero.deactivateAxe();
+            } else {
+                currentMap.removeObject(object);
             }
         }
+        list.clear();
     }
 
     public void handleCheckPoint(boolean isChecked) {
@@ -1032,6 +1184,10 @@ public class MapManager {
         }
     }
 
+    public double getProgressRate() {
+        return progressRate;
+    }
+
     public int getRemainingTime() {
         return (int) map.getRemainingTime();
     }
@@ -1039,4 +1195,48 @@ public class MapManager {
     public void setChecked(boolean checked) {
         isChecked = checked;
     }
+
+    public void writeState(DataOutput out) throws IOException {
+        out.writeUTF(map.getPath());
+        out.writeDouble(map.getRemainingTime());
+        out.writeBoolean(isChecked);
+        out.writeDouble(xHero);
+        out.writeDouble(yHero);
+
+        CheckPoint checkPoint = map.getCheckPoint();
+        out.writeBoolean(checkPoint != null && checkPoint.isRevealed());
+        out.writeBoolean(checkPoint != null && checkPoint.isChecked());
+        out.writeInt(map.getBowser() != null ? map.getBowser().getHp() : -1);
+
+        streamer.writeDelta(out);
+    }
+
+    public void readState(DataInput in) throws IOException {
+        String path = in.readUTF();
+        if (!path.equals(map.getPath())) {
+            throw new IOException("Snapshot was taken on " + path + " but " + map.getPath() + " is loaded");
+        }
+
+        double remainingTime = in.readDouble();
+        boolean isChecked = in.readBoolean();
+        double xHero = in.readDouble();
+        double yHero = in.readDouble();
+        boolean revealed = in.readBoolean();
+        boolean checked = in.readBoolean();
+        int bowserHp = in.readInt();
+        MapStreamer.Delta delta = streamer.readDelta(in);
+
+        // the whole snapshot was read, only now does it replace the level's state
+        map.setRemainingTime(remainingTime);
+        this.isChecked = isChecked;
+        this.xHero = xHero;
+        this.yHero = yHero;
+        if (revealed && map.getCheckPoint() != null) {
+            map.getCheckPoint().check(checked);
+        }
+        if (bowserHp >= 0 && map.getBowser() != null) {
+            map.getBowser().setHp(bowserHp);
+        }
+        streamer.applyDelta(delta);
+    }
 }
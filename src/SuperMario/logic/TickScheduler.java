@@ -0,0 +1,69 @@
+package SuperMario.logic;
+
+import java.util.PriorityQueue;
+
+public class TickScheduler {
+
+    private final PriorityQueue<Scheduled> queue = new PriorityQueue<>();
+    private long tick;
+    private long sequence;
+
+    public static TickScheduler getInstance() {
+        return GameSession.current().getScheduler();
+    }
+
+    // delays are counted in game ticks, so they stop while the game is paused and need no thread of their own
+    public synchronized void schedule(Runnable task, long delayMillis) {
+        long delay = Math.max(1, (delayMillis * GameEngine.TICKS_PER_SECOND + 999) / 1000);
+        queue.add(new Scheduled(tick + delay, sequence++, task));
+    }
+
+    public synchronized void cancel(Runnable task) {
+        queue.removeIf(scheduled -> scheduled.task == task);
+    }
+
+    public synchronized void clear() {
+        queue.clear();
+    }
+
+    public void advance() {
+        long now;
+        synchronized (this) {
+            now = ++tick;
+        }
+        Runnable task;
+        while ((task = poll(now)) != null) {
+            task.run();
+        }
+    }
+
+    private synchronized Runnable poll(long now) {
+        Scheduled next = queue.peek();
+        if (next == null || next.due > now) {
+            return null;
+        }
+        queue.poll();
+        return next.task;
+    }
+
+    private static final class Scheduled implements Comparable<Scheduled> {
+
+        private final long due;
+        private final long sequence;
+        private final Runnable task;
+
+        Scheduled(long due, long sequence, Runnable task) {
+            this.due = due;
+            this.sequence = sequence;
+            this.task = task;
+        }
+
+        @Override
+        public int compareTo(Scheduled other) {
+            if (due != other.due) {
+                return Long.compare(due, other.due);
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -16,9 +16,8 @@ public class UserData {
     private boolean[] typesOwned;
     private final LoadGameRepository loadGameRepository;
     private final SaveGameRepository saveGameRepository;
-    private static final UserData instance = new UserData();
 
-    private UserData(){
+    UserData(){
         this.loadGameRepository = new LoadGameRepository();
         this.saveGameRepository = new SaveGameRepository();
         this.typesOwned = new boolean[5];
@@ -26,7 +25,7 @@ public class UserData {
     }
 
     public static UserData getInstance() {
-        return instance;
+        return GameSession.current().getUserData();
     }
 
     private void setTypesOwned(){
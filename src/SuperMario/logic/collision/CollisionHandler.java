@@ -0,0 +1,9 @@
+package SuperMario.logic.collision;
+
+import SuperMario.model.GameObject;
+
+public interface CollisionHandler {
+
+    void onCollision(GameObject first, GameObject second);
+
+}
@@ -0,0 +1,32 @@
+package SuperMario.logic.collision;
+
+import SuperMario.model.EntityKind;
+import SuperMario.model.GameObject;
+
+public class CollisionMatrix {
+
+    private final CollisionHandler[] handlers = new CollisionHandler[EntityKind.COUNT * EntityKind.COUNT];
+
+    public void register(int firstKind, int secondKind, CollisionHandler handler) {
+        handlers[firstKind * EntityKind.COUNT + secondKind] = handler;
+    }
+
+    public void register(int firstKind, int[] secondKinds, CollisionHandler handler) {
+        for (int secondKind : secondKinds) {
+            register(firstKind, secondKind, handler);
+        }
+    }
+
+    public boolean hasHandler(int firstKind, int secondKind) {
+        return handlers[firstKind * EntityKind.COUNT + secondKind] != null;
+    }
+
+    public boolean dispatch(GameObject first, GameObject second) {
+        CollisionHandler handler = handlers[first.getKind() * EntityKind.COUNT + second.getKind()];
+        if (handler == null) {
+            return false;
+        }
+        handler.onCollision(first, second);
+        return true;
+    }
+}
@@ -0,0 +1,160 @@
+package SuperMario.logic.collision;
+
+import SuperMario.model.EntityKind;
+import SuperMario.model.GameObject;
+
+import java.util.Arrays;
+
+public class SweepAndPrune {
+
+    private final boolean[] interacts = new boolean[EntityKind.COUNT * EntityKind.COUNT];
+    private final double margin;
+    private GameObject[] order = new GameObject[64];
+    private double[] minX = new double[64];
+    private int count;
+    private GameObject[] staged = new GameObject[64];
+    private GameObject[] incoming = new GameObject[64];
+    private int incomingCount;
+    private int[] active = new int[64];
+    private GameObject[] pairs = new GameObject[128];
+    private int pairCount;
+
+    public SweepAndPrune(double margin, CollisionMatrix... matrices) {
+        this.margin = margin;
+        for (int first = 0; first < EntityKind.COUNT; first++) {
+            for (int second = 0; second < EntityKind.COUNT; second++) {
+                for (CollisionMatrix matrix : matrices) {
+                    if (matrix.hasHandler(first, second)) {
+                        interacts[first * EntityKind.COUNT + second] = true;
+                        interacts[second * EntityKind.COUNT + first] = true;
+                    }
+                }
+            }
+        }
+    }
+
+    public void add(GameObject object) {
+        int id = object.getId();
+        if (id >= staged.length) {
+            staged = Arrays.copyOf(staged, Math.max(id + 1, staged.length * 2));
+        }
+        if (staged[id] == object) {
+            return;
+        }
+        staged[id] = object;
+
+        if (incomingCount == incoming.length) {
+            incoming = Arrays.copyOf(incoming, incoming.length * 2);
+        }
+        incoming[incomingCount++] = object;
+    }
+
+    public int sweep() {
+        retainStaged();
+        sortByMinX();
+
+        pairCount = 0;
+        int activeCount = 0;
+
+        for (int i = 0; i < count; i++) {
+            GameObject object = order[i];
+            double left = minX[i];
+
+            int kept = 0;
+            for (int j = 0; j < activeCount; j++) {
+                int index = active[j];
+                GameObject other = order[index];
+                if (other.getX() + other.getWidth() + margin >= left) {
+                    active[kept++] = index;
+                    if (interacts[object.getKind() * EntityKind.COUNT + other.getKind()] && overlapsVertically(object, other)) {
+                        addPair(other, object);
+                    }
+                }
+            }
+            activeCount = kept;
+
+            if (activeCount == active.length) {
+                active = Arrays.copyOf(active, active.length * 2);
+            }
+            active[activeCount++] = i;
+        }
+
+        return pairCount;
+    }
+
+    public GameObject getFirst(int pair) {
+        return pairs[2 * pair];
+    }
+
+    public GameObject getSecond(int pair) {
+        return pairs[2 * pair + 1];
+    }
+
+    private void retainStaged() {
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            GameObject object = order[i];
+            int id = object.getId();
+            if (id < staged.length && staged[id] == object) {
+                staged[id] = null;
+                order[kept] = object;
+                minX[kept] = minX[i];
+                kept++;
+            }
+        }
+
+        for (int i = 0; i < incomingCount; i++) {
+            GameObject object = incoming[i];
+            int id = object.getId();
+            if (staged[id] == object) {
+                staged[id] = null;
+                if (kept == order.length) {
+                    order = Arrays.copyOf(order, order.length * 2);
+                    minX = Arrays.copyOf(minX, minX.length * 2);
+                }
+                order[kept++] = object;
+            }
+            incoming[i] = null;
+        }
+
+        if (kept < count) {
+            Arrays.fill(order, kept, count, null);
+        }
+        count = kept;
+        incomingCount = 0;
+    }
+
+    private void sortByMinX() {
+        for (int i = 0; i < count; i++) {
+            minX[i] = order[i].getX() - margin;
+        }
+
+        // the order of the previous tick is kept, so this is close to linear
+        for (int i = 1; i < count; i++) {
+            GameObject object = order[i];
+            double key = minX[i];
+            int j = i - 1;
+            while (j >= 0 && minX[j] > key) {
+                order[j + 1] = order[j];
+                minX[j + 1] = minX[j];
+                j--;
+            }
+            order[j + 1] = object;
+            minX[j + 1] = key;
+        }
+    }
+
+    private boolean overlapsVertically(GameObject first, GameObject second) {
+        return first.getY() - margin <= second.getY() + second.getHeight() + margin
+                && second.getY() - margin <= first.getY() + first.getHeight() + margin;
+    }
+
+    private void addPair(GameObject first, GameObject second) {
+        if (2 * pairCount + 1 >= pairs.length) {
+            pairs = Arrays.copyOf(pairs, pairs.length * 2);
+        }
+        pairs[2 * pairCount] = first;
+        pairs[2 * pairCount + 1] = second;
+        pairCount++;
+    }
+}
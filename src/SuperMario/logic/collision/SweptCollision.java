@@ -0,0 +1,92 @@
+package SuperMario.logic.collision;
+
+import SuperMario.model.EntityKind;
+import SuperMario.model.GameObject;
+
+import java.util.ArrayList;
+
+public class SweptCollision {
+
+    public static final double MAX_STEP = 24;
+
+    private SweptCollision() {
+    }
+
+    public static boolean isFast(double dx, double dy) {
+        return Math.abs(dx) > MAX_STEP || Math.abs(dy) > MAX_STEP;
+    }
+
+    public static double timeOfImpact(GameObject object, double fromX, double fromY, double dx, double dy,
+                                      ArrayList<? extends GameObject> targets) {
+        // shrunk by a pixel so objects resting on a tile are not stopped by it
+        double x = fromX + 1, y = fromY + 1;
+        double width = object.getWidth() - 2, height = object.getHeight() - 2;
+
+        double left = Math.min(x, x + dx), right = Math.max(x, x + dx) + width;
+        double top = Math.min(y, y + dy), bottom = Math.max(y, y + dy) + height;
+
+        double earliest = 1;
+        for (GameObject target : targets) {
+            if (target == null || target.getKind() == EntityKind.HOLE) {
+                continue;
+            }
+
+            double targetX = target.getX(), targetY = target.getY();
+            if (targetX > right || targetX + target.getWidth() < left || targetY > bottom || targetY + target.getHeight() < top) {
+                continue;
+            }
+
+            double time = timeOfImpact(x, y, width, height, dx, dy, targetX, targetY, target.getWidth(), target.getHeight());
+            if (time < earliest) {
+                earliest = time;
+            }
+        }
+        return earliest;
+    }
+
+    public static double timeOfImpact(double x, double y, double width, double height, double dx, double dy,
+                                      double targetX, double targetY, double targetWidth, double targetHeight) {
+        double entryX, exitX;
+        if (dx > 0) {
+            entryX = (targetX - (x + width)) / dx;
+            exitX = (targetX + targetWidth - x) / dx;
+        } else if (dx < 0) {
+            entryX = (targetX + targetWidth - x) / dx;
+            exitX = (targetX - (x + width)) / dx;
+        } else if (x + width <= targetX || x >= targetX + targetWidth) {
+            return 1;
+        } else {
+            entryX = Double.NEGATIVE_INFINITY;
+            exitX = Double.POSITIVE_INFINITY;
+        }
+
+        double entryY, exitY;
+        if (dy > 0) {
+            entryY = (targetY - (y + height)) / dy;
+            exitY = (targetY + targetHeight - y) / dy;
+        } else if (dy < 0) {
+            entryY = (targetY + targetHeight - y) / dy;
+            exitY = (targetY - (y + height)) / dy;
+        } else if (y + height <= targetY || y >= targetY + targetHeight) {
+            return 1;
+        } else {
+            entryY = Double.NEGATIVE_INFINITY;
+            exitY = Double.POSITIVE_INFINITY;
+        }
+
+        double entry = Math.max(entryX, entryY);
+        double exit = Math.min(exitX, exitY);
+
+        // already overlapping is left to the discrete checks
+        if (entry > exit || entry < 0 || entry >= 1) {
+            return 1;
+        }
+        return entry;
+    }
+
+    public static void moveTo(GameObject object, double fromX, double fromY, double dx, double dy, double time) {
+        // one pixel of overlap so the bounds checks in MapManager see the contact
+        object.setX(fromX + dx * time + Math.signum(dx));
+        object.setY(fromY + dy * time + Math.signum(dy));
+    }
+}
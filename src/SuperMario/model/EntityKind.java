@@ -0,0 +1,71 @@
+package SuperMario.model;
+
+public class EntityKind {
+
+    public static final int HERO = 0;
+
+    public static final int GOOMBA = 1;
+    public static final int KOOPA_TROOPA = 2;
+    public static final int SPINY = 3;
+    public static final int PIRANHA = 4;
+    public static final int BOWSER = 5;
+
+    public static final int FIREBALL = 6;
+    public static final int AXE = 7;
+    public static final int FIRE = 8;
+    public static final int BOMB = 9;
+
+    public static final int COIN = 10;
+    public static final int PRIZE_ITEM = 11;
+
+    public static final int BRICK = 12;
+    public static final int GROUND_BRICK = 13;
+    public static final int ORDINARY_BRICK = 14;
+    public static final int SURPRISE_BRICK = 15;
+    public static final int COIN_BRICK = 16;
+    public static final int MULTI_COIN_BRICK = 17;
+    public static final int CHECK_POINT = 18;
+    public static final int SLIME = 19;
+    public static final int SMALL_PIPE = 20;
+    public static final int PIPE = 21;
+    public static final int CROSSOVER_TUNNEL = 22;
+    public static final int BORDER = 23;
+    public static final int LAVA_BORDER = 24;
+    public static final int HOLE = 25;
+
+    public static final int FLAG = 26;
+    public static final int CASTLE = 27;
+
+    public static final int COUNT = 28;
+
+    private static final boolean[] enemies = new boolean[COUNT];
+    private static final boolean[] bricks = new boolean[COUNT];
+    private static final boolean[] obstacles = new boolean[COUNT];
+
+    static {
+        enemies[GOOMBA] = true;
+        enemies[KOOPA_TROOPA] = true;
+        enemies[SPINY] = true;
+        enemies[PIRANHA] = true;
+        enemies[BOWSER] = true;
+
+        for (int kind = BRICK; kind <= SMALL_PIPE; kind++) {
+            bricks[kind] = true;
+        }
+        for (int kind = BRICK; kind <= HOLE; kind++) {
+            obstacles[kind] = true;
+        }
+    }
+
+    public static boolean isEnemy(int kind) {
+        return enemies[kind];
+    }
+
+    public static boolean isBrick(int kind) {
+        return bricks[kind];
+    }
+
+    public static boolean isObstacle(int kind) {
+        return obstacles[kind];
+    }
+}
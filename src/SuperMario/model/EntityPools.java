@@ -0,0 +1,93 @@
+package SuperMario.model;
+
+import SuperMario.logic.GameSession;
+import SuperMario.model.enemy.bowser.Bomb;
+import SuperMario.model.enemy.bowser.Fire;
+import SuperMario.model.prize.Coin;
+import SuperMario.model.weapon.Axe;
+import SuperMario.model.weapon.Fireball;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+public class EntityPools {
+
+    private final ObjectPool<Fireball> fireballs = new ObjectPool<>("fireball", 32,
+            () -> new Fireball(0, 0, null, true), fireball -> fireball.setAsleep(true));
+    private final ObjectPool<Axe> axes = new ObjectPool<>("axe", 2,
+            () -> new Axe(0, 0, null, null), Axe::park);
+    private final ObjectPool<Fire> fires = new ObjectPool<>("bowser fire", 16,
+            () -> new Fire(0, 0, null, true), fire -> fire.setAsleep(true));
+    private final ObjectPool<Bomb> bombs = new ObjectPool<>("bomb", 8,
+            () -> new Bomb(0, 0, null), Bomb::park);
+    private final ObjectPool<Coin> coins = new ObjectPool<>("coin", 32,
+            () -> new Coin(0, 0, null, 0), coin -> coin.setAsleep(true));
+
+    public static EntityPools getInstance() {
+        return GameSession.current().getPools();
+    }
+
+    public ObjectPool<Fireball> getFireballs() {
+        return fireballs;
+    }
+
+    public ObjectPool<Axe> getAxes() {
+        return axes;
+    }
+
+    public ObjectPool<Fire> getFires() {
+        return fires;
+    }
+
+    public ObjectPool<Bomb> getBombs() {
+        return bombs;
+    }
+
+    public ObjectPool<Coin> getCoins() {
+        return coins;
+    }
+
+    // pooled kinds go back to their pool, everything else gives its store slot back
+    public void release(GameObject object) {
+        switch (object.getKind()) {
+            case EntityKind.FIREBALL:
+                fireballs.release((Fireball) object);
+                break;
+            case EntityKind.AXE:
+                axes.release((Axe) object);
+                break;
+            case EntityKind.FIRE:
+                fires.release((Fire) object);
+                break;
+            case EntityKind.BOMB:
+                bombs.release((Bomb) object);
+                break;
+            case EntityKind.COIN:
+                coins.release((Coin) object);
+                break;
+            default:
+                object.dispose();
+                break;
+        }
+    }
+
+    public String report() {
+        StringBuilder report = new StringBuilder("Object pools\n");
+        for (ObjectPool<?> pool : new ObjectPool<?>[]{fireballs, axes, fires, bombs, coins}) {
+            report.append("  ").append(pool.getName())
+                    .append(": created=").append(pool.getCreated())
+                    .append(" reused=").append(pool.getReused())
+                    .append(" released=").append(pool.getReleased())
+                    .append(" discarded=").append(pool.getDiscarded())
+                    .append(" parked=").append(pool.getParkedCount())
+                    .append('\n');
+        }
+        long collections = 0, collectionMillis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            collections += Math.max(0, collector.getCollectionCount());
+            collectionMillis += Math.max(0, collector.getCollectionTime());
+        }
+        report.append("  gc: collections=").append(collections).append(" time=").append(collectionMillis).append("ms");
+        return report.toString();
+    }
+}
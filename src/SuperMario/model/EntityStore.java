@@ -0,0 +1,138 @@
+package SuperMario.model;
+
+import SuperMario.logic.GameSession;
+
+import java.util.Arrays;
+
+public class EntityStore {
+
+    public static final int FALLING = 1;
+    public static final int JUMPING = 1 << 1;
+    public static final int TO_RIGHT = 1 << 2;
+    public static final int ASLEEP = 1 << 3;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    double[] x, y;
+    double[] velX, velY;
+    double[] gravityAcc;
+    int[] width, height;
+    int[] flags;
+    byte[] kinds;
+    private GameObject[] owners;
+    private int[] freeIds;
+    private int freeCount;
+    private int size;
+
+    public EntityStore() {
+        x = new double[INITIAL_CAPACITY];
+        y = new double[INITIAL_CAPACITY];
+        velX = new double[INITIAL_CAPACITY];
+        velY = new double[INITIAL_CAPACITY];
+        gravityAcc = new double[INITIAL_CAPACITY];
+        width = new int[INITIAL_CAPACITY];
+        height = new int[INITIAL_CAPACITY];
+        flags = new int[INITIAL_CAPACITY];
+        kinds = new byte[INITIAL_CAPACITY];
+        owners = new GameObject[INITIAL_CAPACITY];
+        freeIds = new int[INITIAL_CAPACITY];
+    }
+
+    public static EntityStore getInstance() {
+        return GameSession.current().getEntityStore();
+    }
+
+    public synchronized int allocate(GameObject owner, int kind) {
+        int id;
+        if (freeCount > 0) {
+            id = freeIds[--freeCount];
+        } else {
+            if (size == owners.length) {
+                grow();
+            }
+            id = size++;
+        }
+
+        x[id] = 0;
+        y[id] = 0;
+        velX[id] = 0;
+        velY[id] = 0;
+        gravityAcc[id] = 0;
+        width[id] = 0;
+        height[id] = 0;
+        flags[id] = 0;
+        kinds[id] = (byte) kind;
+        owners[id] = owner;
+        return id;
+    }
+
+    public synchronized void release(int id, GameObject owner) {
+        if (id < 0 || id >= size || owners[id] != owner) {
+            return;
+        }
+        owners[id] = null;
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeIds.length * 2);
+        }
+        freeIds[freeCount++] = id;
+    }
+
+    private void grow() {
+        int capacity = owners.length * 2;
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        velX = Arrays.copyOf(velX, capacity);
+        velY = Arrays.copyOf(velY, capacity);
+        gravityAcc = Arrays.copyOf(gravityAcc, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        kinds = Arrays.copyOf(kinds, capacity);
+        owners = Arrays.copyOf(owners, capacity);
+    }
+
+    public GameObject getOwner(int id) {
+        return owners[id];
+    }
+
+    public int size() {
+        return size - freeCount;
+    }
+
+    public void integrate(int id) {
+        int f = flags[id];
+        if ((f & JUMPING) != 0 && velY[id] <= 0) {
+            f = (f & ~JUMPING) | FALLING;
+            flags[id] = f;
+        }
+
+        if ((f & (FALLING | JUMPING)) != 0) {
+            velY[id] -= gravityAcc[id];
+        }
+        y[id] -= velY[id]; // this is negative because the Y-vector in drawing is not the way we supposed :)
+        x[id] += velX[id];
+    }
+
+    public void integrate(int[] ids, int count) {
+        double[] x = this.x, y = this.y, velX = this.velX, velY = this.velY, gravityAcc = this.gravityAcc;
+        int[] flags = this.flags;
+
+        for (int i = 0; i < count; i++) {
+            int id = ids[i];
+            int f = flags[id];
+            double vy = velY[id];
+
+            if ((f & JUMPING) != 0 && vy <= 0) {
+                f = (f & ~JUMPING) | FALLING;
+                flags[id] = f;
+            }
+
+            if ((f & (FALLING | JUMPING)) != 0) {
+                vy -= gravityAcc[id];
+                velY[id] = vy;
+            }
+            y[id] -= vy;
+            x[id] += velX[id];
+        }
+    }
+}
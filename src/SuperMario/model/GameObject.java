@@ -5,21 +5,25 @@ import java.awt.image.BufferedImage;
 
 public abstract class GameObject {
 
-    private double x, y;
+    private final EntityStore store;
 
-    private double velX, velY;
-
-    private Dimension dimension;
+    private final int id;
 
     private BufferedImage style;
 
-    private boolean toRight;
-
-    private double gravityAcc;
+    public GameObject(double x, double y, BufferedImage style) {
+        this.store = EntityStore.getInstance();
+        this.id = store.allocate(this, kind());
+        initialize(x, y, style);
+    }
 
-    private boolean falling, jumping;
+    // puts a pooled object back into the state the constructor leaves it in
+    protected void reuse(double x, double y, BufferedImage style) {
+        store.flags[id] = 0;
+        initialize(x, y, style);
+    }
 
-    public GameObject(double x, double y, BufferedImage style) {
+    private void initialize(double x, double y, BufferedImage style) {
         setLocation(x, y);
         setStyle(style);
 
@@ -30,29 +34,38 @@ public abstract class GameObject {
         setVelX(0);
         setVelY(0);
         setGravityAcc(0.38);
-        jumping = false;
-        falling = true;
+        setJumping(false);
+        setFalling(true);
     }
 
     public void draw(Graphics g) {
         BufferedImage style = getStyle();
 
         if (style != null) {
-            g.drawImage(style, (int) x, (int) y, null);
+            g.drawImage(style, (int) getX(), (int) getY(), null);
         }
     }
 
-    public void updateLocation(){
-        if (isJumping() && getVelY() <= 0) {
-            setJumping(false);
-            setFalling(true);
-        }
+    protected abstract int kind();
 
-        if (isFalling() || isJumping()) {
-            setVelY(getVelY() - getGravityAcc());
-        }
-        setY(getY() - getVelY()); // this is negative because the Y-vector in drawing is not the way we supposed :)
-        setX(getX() + getVelX());
+    public int getKind() {
+        return store.kinds[id];
+    }
+
+    public void updateLocation() {
+        store.integrate(id);
+    }
+
+    public boolean hasDefaultMotion() {
+        return true;
+    }
+
+    public void dispose() {
+        store.release(id, this);
+    }
+
+    public int getId() {
+        return id;
     }
 
     public void setLocation(double x, double y) {
@@ -61,31 +74,40 @@ public abstract class GameObject {
     }
 
     public double getX() {
-        return x;
+        return store.x[id];
     }
 
     public void setX(double x) {
-        this.x = x;
+        store.x[id] = x;
     }
 
     public double getY() {
-        return y;
+        return store.y[id];
     }
 
     public void setY(double y) {
-        this.y = y;
+        store.y[id] = y;
     }
 
     public Dimension getDimension() {
-        return dimension;
+        return new Dimension(store.width[id], store.height[id]);
+    }
+
+    public int getWidth() {
+        return store.width[id];
+    }
+
+    public int getHeight() {
+        return store.height[id];
     }
 
     public void setDimension(Dimension dimension) {
-        this.dimension = dimension;
+        setDimension(dimension.width, dimension.height);
     }
 
     public void setDimension(int width, int height) {
-        this.dimension = new Dimension(width, height);
+        store.width[id] = width;
+        store.height[id] = height;
     }
 
     public BufferedImage getStyle() {
@@ -97,70 +119,94 @@ public abstract class GameObject {
     }
 
     public double getVelX() {
-        return velX;
+        return store.velX[id];
     }
 
     public void setVelX(double velX) {
-        this.velX = velX;
+        store.velX[id] = velX;
     }
 
     public double getVelY() {
-        return velY;
+        return store.velY[id];
     }
 
     public void setVelY(double velY) {
-        this.velY = velY;
+        store.velY[id] = velY;
     }
 
     public double getGravityAcc() {
-        return gravityAcc;
+        return store.gravityAcc[id];
     }
 
     public void setGravityAcc(double gravityAcc) {
-        this.gravityAcc = gravityAcc;
+        store.gravityAcc[id] = gravityAcc;
     }
 
     public Rectangle getTopBounds() {
-        return new Rectangle((int) x + dimension.width / 6, (int) y, 2 * dimension.width / 3, dimension.height / 2);
+        int width = getWidth(), height = getHeight();
+        return new Rectangle((int) getX() + width / 6, (int) getY(), 2 * width / 3, height / 2);
     }
 
     public Rectangle getBottomBounds() {
-        return new Rectangle((int) x + dimension.width / 6, (int) y + dimension.height / 2, 2 * dimension.width / 3, dimension.height / 2);
+        int width = getWidth(), height = getHeight();
+        return new Rectangle((int) getX() + width / 6, (int) getY() + height / 2, 2 * width / 3, height / 2);
     }
 
     public Rectangle getLeftBounds() {
-        return new Rectangle((int) x, (int) y + dimension.height / 4, dimension.width / 4, dimension.height / 2);
+        int width = getWidth(), height = getHeight();
+        return new Rectangle((int) getX(), (int) getY() + height / 4, width / 4, height / 2);
     }
 
     public Rectangle getRightBounds() {
-        return new Rectangle((int) x + 3 * dimension.width / 4, (int) y + dimension.height / 4, dimension.width / 4, dimension.height / 2);
+        int width = getWidth(), height = getHeight();
+        return new Rectangle((int) getX() + 3 * width / 4, (int) getY() + height / 4, width / 4, height / 2);
     }
 
     public Rectangle getBounds() {
-        return new Rectangle((int) x, (int) y, dimension.width, dimension.height);
+        return new Rectangle((int) getX(), (int) getY(), getWidth(), getHeight());
     }
 
     public boolean isFalling() {
-        return falling;
+        return hasFlag(EntityStore.FALLING);
     }
 
     public void setFalling(boolean falling) {
-        this.falling = falling;
+        setFlag(EntityStore.FALLING, falling);
     }
 
     public boolean isJumping() {
-        return jumping;
+        return hasFlag(EntityStore.JUMPING);
     }
 
     public void setJumping(boolean jumping) {
-        this.jumping = jumping;
+        setFlag(EntityStore.JUMPING, jumping);
     }
 
     public void setToRight(boolean toRight) {
-        this.toRight = toRight;
+        setFlag(EntityStore.TO_RIGHT, toRight);
     }
 
     public boolean isToRight() {
-        return toRight;
+        return hasFlag(EntityStore.TO_RIGHT);
+    }
+
+    public boolean isAsleep() {
+        return hasFlag(EntityStore.ASLEEP);
+    }
+
+    public void setAsleep(boolean asleep) {
+        setFlag(EntityStore.ASLEEP, asleep);
+    }
+
+    private boolean hasFlag(int flag) {
+        return (store.flags[id] & flag) != 0;
+    }
+
+    private void setFlag(int flag, boolean value) {
+        if (value) {
+            store.flags[id] |= flag;
+        } else {
+            store.flags[id] &= ~flag;
+        }
     }
 }
@@ -0,0 +1,71 @@
+package SuperMario.model;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+public class ObjectPool<T extends GameObject> {
+
+    private final String name;
+    private final Supplier<T> factory;
+    private final Consumer<T> resetHook;
+    private final Object[] parked;
+    private int parkedCount;
+    private long created, reused, released, discarded;
+
+    public ObjectPool(String name, int capacity, Supplier<T> factory, Consumer<T> resetHook) {
+        this.name = name;
+        this.factory = factory;
+        this.resetHook = resetHook;
+        this.parked = new Object[capacity];
+    }
+
+    // the caller re-initializes what it gets back, a parked object only had its reset hook run
+    @SuppressWarnings("unchecked")
+    public synchronized T acquire() {
+        if (parkedCount == 0) {
+            created++;
+            return factory.get();
+        }
+        reused++;
+        T object = (T) parked[--parkedCount];
+        parked[parkedCount] = null;
+        return object;
+    }
+
+    public synchronized void release(T object) {
+        released++;
+        resetHook.accept(object);
+        if (parkedCount == parked.length) {
+            // over capacity, it gives its store slot back and is left to the collector
+            discarded++;
+            object.dispose();
+            return;
+        }
+        // parked objects keep their store slot, so reusing one allocates nothing
+        parked[parkedCount++] = object;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized int getParkedCount() {
+        return parkedCount;
+    }
+
+    public synchronized long getCreated() {
+        return created;
+    }
+
+    public synchronized long getReused() {
+        return reused;
+    }
+
+    public synchronized long getReleased() {
+        return released;
+    }
+
+    public synchronized long getDiscarded() {
+        return discarded;
+    }
+}
@@ -1,18 +1,22 @@
 package SuperMario.model.enemy;
 
-import SuperMario.graphic.view.animation.Animation;
+import SuperMario.model.EntityKind;
+import SuperMario.graphic.view.animation.AnimationClock;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
 
 public class Goomba extends Enemy {
 
-    private Animation animation;
+    private BufferedImage[] frames;
+    // neighbours spawned a column apart step out of sync
+    private final int phase;
 
     public Goomba(double x, double y, BufferedImage style) {
         super(x, y, style);
         setDimension(48, 48);
         setVelX(3);
+        phase = (int) x / 48;
     }
 
     @Override
@@ -22,18 +26,15 @@ public class Goomba extends Enemy {
     }
 
     public void animate() {
-        boolean isAnimationTicked = animation.animate(5);
-        if (isAnimationTicked) {
-            setStyle(animation.getCurrentFrame());
-        }
+        setStyle(AnimationClock.getInstance().getFrame(AnimationClock.GOOMBA, phase, frames));
     }
 
     public void setFrames(BufferedImage[] frames) {
-        setAnimation(new Animation(frames));
+        this.frames = frames;
     }
 
-    public void setAnimation(Animation animation) {
-        this.animation = animation;
+    @Override
+    protected int kind() {
+        return EntityKind.GOOMBA;
     }
-
 }
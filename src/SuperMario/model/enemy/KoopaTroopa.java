@@ -1,9 +1,10 @@
 package SuperMario.model.enemy;
 
+import SuperMario.model.EntityKind;
+import SuperMario.logic.TickScheduler;
+
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.util.Timer;
-import java.util.TimerTask;
 
 public class KoopaTroopa extends Enemy {
 
@@ -44,6 +45,11 @@ public class KoopaTroopa extends Enemy {
         return isHit;
     }
 
+    @Override
+    public boolean hasDefaultMotion() {
+        return false;
+    }
+
     @Override
     public void updateLocation() {
         if (!isHit) {
@@ -63,17 +69,21 @@ public class KoopaTroopa extends Enemy {
     }
 
     public void setTimer() {
-        TimerTask task = new TimerTask() {
+        Runnable task = new Runnable() {
             @Override
             public void run() {
                 setHit(false);
             }
         };
-        Timer timer = new Timer();
-        timer.schedule(task, 3000);
+        TickScheduler.getInstance().schedule(task, 3000);
     }
 
     public void setShell(BufferedImage shell) {
         this.shell = shell;
     }
+
+    @Override
+    protected int kind() {
+        return EntityKind.KOOPA_TROOPA;
+    }
 }
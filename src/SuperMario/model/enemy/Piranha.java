@@ -1,15 +1,24 @@
 package SuperMario.model.enemy;
 
-import SuperMario.graphic.view.animation.Animation;
+import SuperMario.model.EntityKind;
+import SuperMario.graphic.view.animation.AnimationClock;
+import SuperMario.logic.TickScheduler;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.util.Timer;
-import java.util.TimerTask;
 
 public class Piranha extends Enemy {
 
-    private Animation animation;
+    private BufferedImage[] frames;
+    private boolean isWaiting;
+    private final Runnable goDownTask = () -> {
+        isWaiting = false;
+        setVelY(-1);
+    };
+    private final Runnable goUpTask = () -> {
+        isWaiting = false;
+        setVelY(1);
+    };
 
     public Piranha(double x, double y, BufferedImage style) {
         super(x , y, style);
@@ -18,6 +27,18 @@ public class Piranha extends Enemy {
 
     @Override
     public void draw(Graphics g) {
+        super.draw(g);
+        animate();
+    }
+
+    @Override
+    public boolean hasDefaultMotion() {
+        return false;
+    }
+
+    @Override
+    public void updateLocation() {
+        super.updateLocation();
         if (getY() >= 580) {
             setY(580);
             setVelY(0);
@@ -28,49 +49,33 @@ public class Piranha extends Enemy {
             setVelY(0);
             setTimerToGoDown();
         }
-        super.draw(g);
-        animate();
     }
 
     public void setTimerToGoDown() {
-        TimerTask task = new TimerTask() {
-            @Override
-            public void run() {
-                setVelY(-1);
-            }
-        };
-        Timer timer = new Timer();
-        timer.schedule(task, 2000);
+        // it sits on the bound for a while, one timer covers the whole wait
+        if (!isWaiting) {
+            isWaiting = true;
+            TickScheduler.getInstance().schedule(goDownTask, 2000);
+        }
     }
 
     public void setTimerToGoUp() {
-        TimerTask task = new TimerTask() {
-            @Override
-            public void run() {
-                setVelY(1);
-            }
-        };
-        Timer timer = new Timer();
-        timer.schedule(task, 3000);
+        if (!isWaiting) {
+            isWaiting = true;
+            TickScheduler.getInstance().schedule(goUpTask, 3000);
+        }
     }
 
     public void animate() {
-        boolean isAnimationTicked = animation.animate(7);
-        if (isAnimationTicked) {
-            setStyle(animation.getCurrentFrame());
-        }
+        setStyle(AnimationClock.getInstance().getFrame(AnimationClock.PIRANHA, 0, frames));
     }
 
     public void setFrames(BufferedImage[] frames) {
-        setAnimation(new Animation(frames));
-    }
-
-    public void setAnimation(Animation animation) {
-        this.animation = animation;
+        this.frames = frames;
     }
 
     @Override
-    public void updateLocation() {
-        super.updateLocation();
+    protected int kind() {
+        return EntityKind.PIRANHA;
     }
 }
@@ -1,5 +1,7 @@
 package SuperMario.model.enemy;
 
+import SuperMario.model.EntityKind;
+
 import java.awt.*;
 import java.awt.image.BufferedImage;
 
@@ -14,6 +16,7 @@ public class Spiny extends Enemy {
     }
 
     public void moveFaster() {
+        setToRight(getVelX() > 0);
         if (isToRight()) {
             setVelX(6);
         } else {
@@ -22,6 +25,7 @@ public class Spiny extends Enemy {
     }
 
     public void moveNormal() {
+        setToRight(getVelX() > 0);
         if (isToRight()) {
             setVelX(3);
         } else {
@@ -33,10 +37,8 @@ public class Spiny extends Enemy {
     public void draw(Graphics g) {
         if (getVelX() > 0) {
             g.drawImage(rightImage, (int) getX(), (int) getY(), null);
-            setToRight(true);
         } else{
             super.draw(g);
-            setToRight(false);
         }
     }
 
@@ -44,4 +46,8 @@ public class Spiny extends Enemy {
         this.rightImage = rightImage;
     }
 
+    @Override
+    protected int kind() {
+        return EntityKind.SPINY;
+    }
 }
@@ -1,66 +1,66 @@
 package SuperMario.model.enemy.bowser;
 
+import SuperMario.graphic.view.animation.ParticleSystem;
+import SuperMario.model.EntityKind;
 import SuperMario.input.ImageLoader;
 import SuperMario.model.GameObject;
+import SuperMario.logic.TickScheduler;
 
-import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.util.Timer;
-import java.util.TimerTask;
 
 public class Bomb extends GameObject {
     private boolean hasIntersect;
     private boolean exploded;
     private boolean timeToVanish;
+    // kept so a pooled bomb can cancel the timers of its previous life
+    private final Runnable vanishTask = () -> {
+        setStyle(null);
+        timeToVanish = true;
+    };
+    private final Runnable explodeTask = () -> {
+        setStyle(ImageLoader.getInstance().getBombExplode());
+        exploded = true;
+        TickScheduler.getInstance().schedule(vanishTask, 1500);
+        ParticleSystem.getInstance().emitExplosion(getX() + getWidth() / 2.0, getY() + getHeight() / 2.0, 64, 6);
+    };
 
     public Bomb(double x, double y, BufferedImage style) {
         super(x, y, style);
+        setUp();
+    }
+
+    public void reset(double x, double y, BufferedImage style) {
+        reuse(x, y, style);
+        setUp();
+    }
+
+    public void park() {
+        TickScheduler scheduler = TickScheduler.getInstance();
+        scheduler.cancel(explodeTask);
+        scheduler.cancel(vanishTask);
+        hasIntersect = false;
+        exploded = false;
+        timeToVanish = false;
+        setAsleep(true);
+    }
+
+    private void setUp() {
         setFalling(false);
         setJumping(true);
         setVelY(15);
     }
 
-    @Override
-    public void draw(Graphics g) {
-        super.draw(g);
-        if (hasIntersect) {
-            setStyle(ImageLoader.getInstance().getBombOn());
-        }
-        if (exploded) {
-            setTimerToVanish();
-        }
-    }
-
     public void setHasIntersect(boolean hasIntersect) {
         this.hasIntersect = hasIntersect;
         if (hasIntersect){
+            setStyle(ImageLoader.getInstance().getBombOn());
             setTimerToExplode();
         }
     }
 
     public void setTimerToExplode() {
         hasIntersect = false;
-        TimerTask task = new TimerTask() {
-            @Override
-            public void run() {
-                setStyle(ImageLoader.getInstance().getBombExplode());
-                exploded = true;
-            }
-        };
-        Timer timer = new Timer();
-        timer.schedule(task, 2500);
-    }
-
-    public void setTimerToVanish() {
-        TimerTask task = new TimerTask() {
-            @Override
-            public void run() {
-                setStyle(null);
-                timeToVanish = true;
-            }
-        };
-        Timer timer = new Timer();
-        timer.schedule(task, 1500);
+        TickScheduler.getInstance().schedule(explodeTask, 2500);
     }
 
     public boolean isTimeToVanish() {
@@ -78,4 +78,9 @@ public class Bomb extends GameObject {
     public void setTimeToVanish(boolean timeToVanish) {
         this.timeToVanish = timeToVanish;
     }
+
+    @Override
+    protected int kind() {
+        return EntityKind.BOMB;
+    }
 }
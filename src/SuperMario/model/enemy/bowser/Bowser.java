@@ -1,8 +1,10 @@
 package SuperMario.model.enemy.bowser;
 
-import SuperMario.graphic.view.animation.Animation;
+import SuperMario.model.EntityKind;
+import SuperMario.graphic.view.animation.AnimationClock;
 import SuperMario.input.ImageLoader;
 import SuperMario.logic.GameEngine;
+import SuperMario.logic.TickScheduler;
 import SuperMario.model.enemy.Enemy;
 import SuperMario.model.hero.Hero;
 import SuperMario.model.map.HitPoints;
@@ -10,18 +12,15 @@ import SuperMario.model.map.HitPoints;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
-import java.util.Timer;
-import java.util.TimerTask;
 
 public class Bowser extends Enemy {
 
     private int hp;
     private boolean isCoolDownFinished = true;
     private final HitPoints hitPoints;
+    private final TickScheduler scheduler;
     private BufferedImage[] rightFrames;
     private BufferedImage[] leftFrames;
-    private Animation rightAnimation;
-    private Animation leftAnimation;
     private Hero hero;
     private final ArrayList<Fire> fire;
     private final ArrayList<Bomb> bomb;
@@ -34,6 +33,7 @@ public class Bowser extends Enemy {
         super(x, y, style);
         setDimension(125, 144);
         hitPoints = HitPoints.getInstance();
+        scheduler = TickScheduler.getInstance();
         setHp(20);
         setVelX(-1.5);
         fire = new ArrayList<>();
@@ -55,14 +55,13 @@ public class Bowser extends Enemy {
         this.hp = hp;
         hitPoints.setStyle(hp);
         stopMoving();
-        TimerTask task = new TimerTask() {
+        Runnable task = new Runnable() {
             @Override
             public void run() {
                 moveNormal(isToRight());
             }
         };
-        Timer timer = new Timer();
-        timer.schedule(task, 1000);
+        scheduler.schedule(task, 1000);
     }
 
     public void setHero(Hero hero) {
@@ -81,17 +80,14 @@ public class Bowser extends Enemy {
         this.rightFrames = frames;
     }
 
-    public void setFrames() {
-        rightAnimation = new Animation(rightFrames);
-        leftAnimation = new Animation(leftFrames);
+    public void animate() {
+        BufferedImage[] frames = isToRight() ? rightFrames : leftFrames;
+        setStyle(AnimationClock.getInstance().getFrame(AnimationClock.BOWSER, 0, frames));
     }
 
-    public void animate() {
-        Animation animation = isToRight() ? rightAnimation : leftAnimation;
-        boolean isAnimationTicked = animation.animate(10);
-        if (isAnimationTicked) {
-            setStyle(animation.getCurrentFrame());
-        }
+    @Override
+    public boolean hasDefaultMotion() {
+        return false;
     }
 
     @Override
@@ -111,73 +107,71 @@ public class Bowser extends Enemy {
         super.updateLocation();
     }
 
-    public void attack() {
+    public void attack(GameEngine engine) {
 
         if (isCoolDownFinished) {
 
             int random;
 
             if (hp > 10) {
-                random = (int) (Math.random() * 3);
+                random = engine.getSession().getRandom().nextInt(3);
             } else {
-                random = (int) (Math.random() * 4);
+                random = engine.getSession().getRandom().nextInt(4);
             }
 
             if (random == 0 && Math.abs(hero.getX() - getX()) >= (6 * 48) && Math.abs(hero.getX() - getX()) <= (10 * 48)) {
-                fire();
+                fire(engine);
             } else if (random == 1 && Math.abs(hero.getX() - getX()) <= (2 * 48)) {
                 grabAttack(hero);
             } else if (random == 2 && hero.getOnLandStandingTimer()) {
                 jumpAttack();
             } else if (random == 3) {
-                bomb();
+                bomb(engine);
             }
         }
     }
 
-    private void fire() {
+    private void fire(GameEngine engine) {
 
         isCoolDownFinished = false;
 
-        TimerTask task = new TimerTask() {
+        Runnable task = new Runnable() {
             @Override
             public void run() {
                 isCoolDownFinished = true;
             }
         };
-        Timer timer = new Timer();
-        timer.schedule(task, 2000 + 1000);
+        scheduler.schedule(task, 2000 + 1000);
 
         BufferedImage style = isToRight() ? ImageLoader.getInstance().getFireballRight() : ImageLoader.getInstance().getFireballLeft();
         double x = isToRight() ? getX() + 9 : getX() - 1;
 
-        int random = (int) (Math.random() * 2);
-        if (random == 0) {
-            fire.add(new Fire(x, getY() + 24, style, isToRight()));
-        } else {
-            fire.add(new Fire(x, getY() + 72, style, isToRight()));
-        }
-        GameEngine.getInstance().playBowserFireBall();
+        int random = engine.getSession().getRandom().nextInt(2);
+        Fire flame = engine.getPools().getFires().acquire();
+        flame.reset(x, random == 0 ? getY() + 24 : getY() + 72, style, isToRight());
+        fire.add(flame);
+        engine.playBowserFireBall();
     }
 
-    private void bomb() {
+    private void bomb(GameEngine engine) {
 
         isCoolDownFinished = false;
 
-        TimerTask task = new TimerTask() {
+        Runnable task = new Runnable() {
             @Override
             public void run() {
                 isCoolDownFinished = true;
             }
         };
-        Timer timer = new Timer();
-        timer.schedule(task, 3000 + 1000);
+        scheduler.schedule(task, 3000 + 1000);
 
         double x = isToRight() ? getX() + 78 : getX();
         double y = getY() + 68;
 
-        bomb.add(new Bomb(x, y, ImageLoader.getInstance().getBomb()));
-        GameEngine.getInstance().playBowserFireBall();
+        Bomb newBomb = engine.getPools().getBombs().acquire();
+        newBomb.reset(x, y, ImageLoader.getInstance().getBomb());
+        bomb.add(newBomb);
+        engine.playBowserFireBall();
     }
 
 
@@ -191,14 +185,13 @@ public class Bowser extends Enemy {
             setHasTouchedGround(false);
         }
 
-        TimerTask task = new TimerTask() {
+        Runnable task = new Runnable() {
             @Override
             public void run() {
                 isCoolDownFinished = true;
             }
         };
-        Timer timer = new Timer();
-        timer.schedule(task, 3000 + 1000);
+        scheduler.schedule(task, 3000 + 1000);
 
     }
 
@@ -209,7 +202,7 @@ public class Bowser extends Enemy {
             isGrabAttackOn = true;
             canHurt = true;
 
-            TimerTask task = new TimerTask() {
+            Runnable task = new Runnable() {
                 @Override
                 public void run() {
                     if (!hero.isGrabbed()) {
@@ -218,17 +211,16 @@ public class Bowser extends Enemy {
                     }
                 }
             };
-            Timer timer = new Timer();
-            timer.schedule(task, 4000);
+            scheduler.schedule(task, 4000);
         }
     }
 
-    public void canJump(boolean isFar) {
+    public void canJump(boolean isFar, GameEngine engine) {
 
         jump = false;
 
         if (!isFar) {
-            int random = (int) (Math.random() * 8);
+            int random = engine.getSession().getRandom().nextInt(8);
             if (random == 1) {
                 jump = true;
             }
@@ -303,4 +295,9 @@ public class Bowser extends Enemy {
     public boolean canHurt() {
         return canHurt;
     }
+
+    @Override
+    protected int kind() {
+        return EntityKind.BOWSER;
+    }
 }
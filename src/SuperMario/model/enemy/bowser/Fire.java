@@ -1,5 +1,6 @@
 package SuperMario.model.enemy.bowser;
 
+import SuperMario.model.EntityKind;
 import SuperMario.model.GameObject;
 
 import java.awt.image.BufferedImage;
@@ -8,6 +9,15 @@ public class Fire extends GameObject {
 
     public Fire(double x, double y, BufferedImage style, boolean toRight) {
         super(x, y, style);
+        setUp(toRight);
+    }
+
+    public void reset(double x, double y, BufferedImage style, boolean toRight) {
+        reuse(x, y, style);
+        setUp(toRight);
+    }
+
+    private void setUp(boolean toRight) {
         setDimension(96, 47);
         setFalling(false);
         setJumping(false);
@@ -17,4 +27,9 @@ public class Fire extends GameObject {
             setVelX(-7);
         }
     }
+
+    @Override
+    protected int kind() {
+        return EntityKind.FIRE;
+    }
 }
@@ -1,7 +1,10 @@
 package SuperMario.model.hero;
 
+import SuperMario.model.EntityKind;
+import SuperMario.model.EntityPools;
 import SuperMario.graphic.manager.Camera;
 import SuperMario.logic.GameEngine;
+import SuperMario.logic.TickScheduler;
 import SuperMario.model.GameObject;
 import SuperMario.input.ImageLoader;
 import SuperMario.model.weapon.Axe;
@@ -9,8 +12,6 @@ import SuperMario.model.weapon.Fireball;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.util.Timer;
-import java.util.TimerTask;
 
 public abstract class Hero extends GameObject {
     private int remainingLives;
@@ -52,9 +53,8 @@ public abstract class Hero extends GameObject {
         tookStar = false;
 
         ImageLoader imageLoader = ImageLoader.getInstance();
-        imageLoader.setHeroType(type);
-        BufferedImage[] leftFrames = imageLoader.getHeroLeftFrames(heroForm);
-        BufferedImage[] rightFrames = imageLoader.getHeroRightFrames(heroForm);
+        BufferedImage[] leftFrames = imageLoader.getHeroLeftFrames(type, heroForm);
+        BufferedImage[] rightFrames = imageLoader.getHeroRightFrames(type, heroForm);
 
         this.heroForm = new HeroForm(leftFrames, rightFrames, isSuper, canShootFire, type);
         setStyle(this.heroForm.getCurrentStyle(toRight, false, false, false));
@@ -71,20 +71,23 @@ public abstract class Hero extends GameObject {
         super.draw(g);
 
         if (axe != null) {
-            if (!axe.isReleased()) {
-                if (toRight) {
-                    axe.setX(getX() + 24);
-                } else {
-                    axe.setX(getX() - 48);
-                }
-                axe.setVelX(getVelX());
-                axe.setVelY(getVelY());
-                axe.setY(getY());
-            }
             axe.draw(g);
         }
     }
 
+    public void holdAxe() {
+        if (axe != null && !axe.isReleased()) {
+            if (toRight) {
+                axe.setX(getX() + 24);
+            } else {
+                axe.setX(getX() - 48);
+            }
+            axe.setVelX(getVelX());
+            axe.setVelY(getVelY());
+            axe.setY(getY());
+        }
+    }
+
     public abstract void jump();
 
     public abstract void jumpOnEnemy();
@@ -102,7 +105,7 @@ public abstract class Hero extends GameObject {
     public void sit() {
         if (isSuper() && !isJumping() && getVelX() == 0) {
             isSitting = true;
-            getDimension().height = 50;
+            setDimension(getWidth(), 50);
             setY(getY() + (96 - 50));
         }
     }
@@ -132,7 +135,7 @@ public abstract class Hero extends GameObject {
     public abstract void move(boolean toRight, Camera camera);
 
     public void setTimer() {
-        TimerTask task = new TimerTask() {
+        Runnable task = new Runnable() {
             @Override
             public void run() {
                 setTookStar(false);
@@ -141,19 +144,17 @@ public abstract class Hero extends GameObject {
                 }
             }
         };
-        Timer timer = new Timer();
-        timer.schedule(task, 15000);
+        TickScheduler.getInstance().schedule(task, 15000);
     }
 
     public void setTimerToRun() {
-        TimerTask task = new TimerTask() {
+        Runnable task = new Runnable() {
             @Override
             public void run() {
                 setTookStar(false);
             }
         };
-        Timer timer = new Timer();
-        timer.schedule(task, 1000);
+        TickScheduler.getInstance().schedule(task, 1000);
     }
 
     public boolean onTouchEnemy(GameEngine engine, int losingCoins) {
@@ -210,26 +211,35 @@ public abstract class Hero extends GameObject {
     public void activateAxe() {
         if (canActivateAxe()) {
             coins -= 3;
-            if (toRight) {
-                axe = new Axe(getX() + 24, getY(), ImageLoader.getInstance().getAxeUpRight(), this);
-            } else {
-                axe = new Axe(getX() - 48, getY(), ImageLoader.getInstance().getAxeUpRight(), this);
-            }
+            axe = EntityPools.getInstance().getAxes().acquire();
+            double x = toRight ? getX() + 24 : getX() - 48;
+            axe.reset(x, getY(), ImageLoader.getInstance().getAxeUpRight(), this);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        super.dispose();
+        if (axe != null) {
+            EntityPools.getInstance().getAxes().release(axe);
+            axe = null;
         }
     }
 
     public void deactivateAxe() {
+        if (axe != null) {
+            EntityPools.getInstance().getAxes().release(axe);
+        }
         axe = null;
         setAxeActivated(false);
         isAxeCoolDownFinished = false;
-        TimerTask task = new TimerTask() {
+        Runnable task = new Runnable() {
             @Override
             public void run() {
                 isAxeCoolDownFinished = true;
             }
         };
-        Timer timer = new Timer();
-        timer.schedule(task, 3000);
+        TickScheduler.getInstance().schedule(task, 3000);
     }
 
     public void throwAxe() {
@@ -375,4 +385,9 @@ public abstract class Hero extends GameObject {
     public int getNumberOfTryToEscape() {
         return numberOfTryToEscape;
     }
-}
\ No newline at end of file
+
+    @Override
+    protected int kind() {
+        return EntityKind.HERO;
+    }
+}
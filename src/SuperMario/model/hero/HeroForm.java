@@ -1,7 +1,8 @@
 package SuperMario.model.hero;
 
-import SuperMario.graphic.view.animation.Animation;
+import SuperMario.graphic.view.animation.AnimationClock;
 import SuperMario.input.ImageLoader;
+import SuperMario.model.EntityPools;
 import SuperMario.model.weapon.Fireball;
 
 import java.awt.image.BufferedImage;
@@ -12,8 +13,8 @@ public class HeroForm {
     public static final int SUPER = 1;
     public static final int FIRE = 2;
     private int heroType;
-    private Animation leftAnimation;
-    private Animation rightAnimation;
+    private BufferedImage[] leftWalkingFrames;
+    private BufferedImage[] rightWalkingFrames;
     private BufferedImage leftStandingFrame;
     private BufferedImage rightStandingFrame;
     private BufferedImage leftJumpingFrame;
@@ -31,9 +32,7 @@ public class HeroForm {
 
         setFrames(leftImages, rightImages);
 
-        ImageLoader imageLoader = ImageLoader.getInstance();
-        imageLoader.setHeroType(heroType);
-        fireballStyle = imageLoader.getFireballImage();
+        fireballStyle = ImageLoader.getInstance().getFireballImage();
     }
 
     public BufferedImage getCurrentStyle(boolean toRight, boolean movingInX, boolean movingInY, boolean isSitting) {
@@ -43,9 +42,8 @@ public class HeroForm {
         if (movingInY) {
             style = toRight ? rightJumpingFrame : leftJumpingFrame;
         } else if (movingInX) {
-            Animation currentAnimation = toRight ? rightAnimation : leftAnimation;
-            currentAnimation.animate(20);
-            style = currentAnimation.getCurrentFrame();
+            BufferedImage[] frames = toRight ? rightWalkingFrames : leftWalkingFrames;
+            style = AnimationClock.getInstance().getFrame(AnimationClock.HERO_WALK, 0, frames);
         } else if (isSitting) {
             style = toRight ? rightSittingFrame : leftSittingFrame;
         } else {
@@ -74,20 +72,22 @@ public class HeroForm {
             rightFrames[i] = rightImages[i + 2];
         }
 
-        rightAnimation = new Animation(rightFrames);
-        leftAnimation = new Animation(leftFrames);
+        rightWalkingFrames = rightFrames;
+        leftWalkingFrames = leftFrames;
     }
 
     public void onTouchEnemy(ImageLoader imageLoader) {
-        BufferedImage[] leftFrames = imageLoader.getHeroLeftFrames(0);
-        BufferedImage[] rightFrames = imageLoader.getHeroRightFrames(0);
+        BufferedImage[] leftFrames = imageLoader.getHeroLeftFrames(heroType, 0);
+        BufferedImage[] rightFrames = imageLoader.getHeroRightFrames(heroType, 0);
 
         setFrames(leftFrames, rightFrames);
     }
 
     public Fireball fire(boolean toRight, double x, double y) {
         if (canShootFire) {
-            return new Fireball(x, y + 48, fireballStyle, toRight);
+            Fireball fireball = EntityPools.getInstance().getFireballs().acquire();
+            fireball.reset(x, y + 48, fireballStyle, toRight);
+            return fireball;
         }
         return null;
     }
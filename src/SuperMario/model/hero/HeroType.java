@@ -7,5 +7,6 @@ public class HeroType {
     public static final int PRINCESS_PEACH = 2;
     public static final int ROSALINA = 3;
     public static final int TOAD = 4;
+    public static final int COUNT = 5;
 
 }
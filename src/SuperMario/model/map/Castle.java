@@ -1,5 +1,6 @@
 package SuperMario.model.map;
 
+import SuperMario.model.EntityKind;
 import SuperMario.model.GameObject;
 
 import java.awt.image.BufferedImage;
@@ -9,4 +10,9 @@ public class Castle extends GameObject {
     public Castle(double x, double y, BufferedImage style) {
         super(x, y, style);
     }
+
+    @Override
+    protected int kind() {
+        return EntityKind.CASTLE;
+    }
 }
@@ -1,5 +1,6 @@
 package SuperMario.model.map;
 
+import SuperMario.model.EntityKind;
 import SuperMario.model.GameObject;
 
 import java.awt.image.BufferedImage;
@@ -12,6 +13,11 @@ public class Flag extends GameObject {
         super(x, y, style);
     }
 
+    @Override
+    public boolean hasDefaultMotion() {
+        return false;
+    }
+
     @Override
     public void updateLocation(){
         if (touched) {
@@ -31,4 +37,9 @@ public class Flag extends GameObject {
     public void setTouched(boolean touched) {
         this.touched = touched;
     }
+
+    @Override
+    protected int kind() {
+        return EntityKind.FLAG;
+    }
 }
@@ -2,6 +2,7 @@ package SuperMario.model.map;
 
 
 import SuperMario.input.ImageLoader;
+import SuperMario.logic.GameSession;
 
 import java.awt.image.BufferedImage;
 
@@ -10,14 +11,12 @@ public class HitPoints {
     private BufferedImage[] frames;
     private BufferedImage style;
 
-    private static final HitPoints instance = new HitPoints();
-
-    private HitPoints() {
+    public HitPoints() {
         frames = ImageLoader.getInstance().getHitPointFrames();
     }
 
     public static HitPoints getInstance() {
-        return instance;
+        return GameSession.current().getHitPoints();
     }
 
     public void setFrames(BufferedImage[] frames) {
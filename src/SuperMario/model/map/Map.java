@@ -1,7 +1,13 @@
 package SuperMario.model.map;
 
 
+import SuperMario.graphic.view.animation.ParticleSystem;
 import SuperMario.logic.GameEngine;
+import SuperMario.logic.collision.SweptCollision;
+import SuperMario.model.EntityKind;
+import SuperMario.model.EntityPools;
+import SuperMario.model.EntityStore;
+import SuperMario.model.GameObject;
 import SuperMario.model.enemy.bowser.Bomb;
 import SuperMario.model.enemy.bowser.Bowser;
 import SuperMario.model.enemy.Enemy;
@@ -10,17 +16,19 @@ import SuperMario.model.hero.Hero;
 import SuperMario.model.obstacle.*;
 import SuperMario.model.prize.Coin;
 import SuperMario.model.prize.Prize;
-import SuperMario.model.prize.PrizeItems;
 import SuperMario.model.weapon.Axe;
 import SuperMario.model.weapon.Fireball;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 
 public class Map {
 
+    private static final int NEARBY_MARGIN = 2 * TileMap.TILE;
+
     private double remainingTime;
     private Hero hero;
     private final ArrayList<Obstacle> obstacles = new ArrayList<>();
@@ -34,8 +42,13 @@ public class Map {
     private Axe axe;
     private Castle castle;
     private Flag endPoint;
+    private TileMap tileMap;
     private BufferedImage backgroundImage;
     private String path;
+    private int[] moverIds = new int[256];
+    private double[] moverX = new double[256];
+    private double[] moverY = new double[256];
+    private int moverCount;
 
 
     public Map() {
@@ -73,6 +86,10 @@ public class Map {
         return revealedPrizes;
     }
 
+    public ArrayList<Obstacle> getObstacles() {
+        return obstacles;
+    }
+
     public ArrayList<Obstacle> getAllObstacles() {
         ArrayList<Obstacle> allObstacles = new ArrayList<>();
 
@@ -82,6 +99,37 @@ public class Map {
         return allObstacles;
     }
 
+    public ArrayList<Obstacle> getObstacles(Rectangle area) {
+        ArrayList<Obstacle> nearby = new ArrayList<>(32);
+        // the same neighbourhood the tile grid returns, instead of every dynamic obstacle on the map
+        int left = area.x - NEARBY_MARGIN, right = area.x + area.width + NEARBY_MARGIN;
+        int top = area.y - NEARBY_MARGIN, bottom = area.y + area.height + NEARBY_MARGIN;
+        addNearby(obstacles, left, right, top, bottom, nearby);
+        addNearby(groundBricks, left, right, top, bottom, nearby);
+        if (tileMap != null) {
+            tileMap.query(area, nearby);
+        }
+        return nearby;
+    }
+
+    private void addNearby(ArrayList<Obstacle> candidates, int left, int right, int top, int bottom, ArrayList<Obstacle> nearby) {
+        for (int i = 0; i < candidates.size(); i++) {
+            Obstacle obstacle = candidates.get(i);
+            double x = obstacle.getX(), y = obstacle.getY();
+            if (x < right && x + obstacle.getWidth() > left && y < bottom && y + obstacle.getHeight() > top) {
+                nearby.add(obstacle);
+            }
+        }
+    }
+
+    public TileMap getTileMap() {
+        return tileMap;
+    }
+
+    public void setTileMap(TileMap tileMap) {
+        this.tileMap = tileMap;
+    }
+
     public void addObstacle(Obstacle obstacle) {
         this.obstacles.add(obstacle);
     }
@@ -100,22 +148,10 @@ public class Map {
 
         if (bowser != null) {
 
-            bowser.attack();
             drawBowserFire(g2);
 
-            if (bowser.getHp() <= 10) {
-                for (Obstacle border : groundBricks) {
-                    if (border instanceof LavaBorder) {
-                        ((LavaBorder) border).setBurn(true);
-                    }
-                }
-                obstacles.clear();
-            }
-
             for (Bomb bomb : bowser.getBomb()) {
-                if (bomb.isTimeToVanish()) {
-                    bowser.getBomb().remove(bomb);
-                } else {
+                if (!bomb.isTimeToVanish()) {
                     bomb.draw(g2);
                 }
             }
@@ -125,10 +161,13 @@ public class Map {
         drawEnemies(g2);
         drawBricks(g2);
         drawFireballs(g2);
+        ParticleSystem.getInstance().draw(g2);
         if (castle != null) {
             castle.draw(g2);
         }
-        endPoint.draw(g2);
+        if (endPoint != null) {
+            endPoint.draw(g2);
+        }
         drawHero(g2);
     }
 
@@ -152,11 +191,7 @@ public class Map {
 
     private void drawPrizes(Graphics2D g2) {
         for (Prize prize : revealedPrizes) {
-            if (prize instanceof Coin) {
-                ((Coin) prize).draw(g2);
-            } else if (prize instanceof PrizeItems) {
-                ((PrizeItems) prize).draw(g2);
-            }
+            ((GameObject) prize).draw(g2);
         }
     }
 
@@ -174,6 +209,10 @@ public class Map {
         for (Obstacle obstacle : groundBricks) {
             obstacle.draw(g2);
         }
+
+        if (tileMap != null) {
+            tileMap.draw(g2);
+        }
     }
 
     private void drawEnemies(Graphics2D g2) {
@@ -188,15 +227,41 @@ public class Map {
     }
 
 
-    public void updateLocations() {
+    public void updateActivation(double left, double right) {
+        for (Enemy enemy : enemies) {
+            if (enemy.getKind() != EntityKind.BOWSER) {
+                enemy.setAsleep(enemy.getX() + enemy.getWidth() < left || enemy.getX() > right);
+            }
+        }
+        for (Prize prize : revealedPrizes) {
+            GameObject object = (GameObject) prize;
+            object.setAsleep(object.getX() + object.getWidth() < left || object.getX() > right);
+        }
+    }
+
+    public void updateLocations(GameEngine engine) {
+        EntityPools pools = engine.getPools();
 
         if (!hero.isGrabbed()) {
+            double fromX = hero.getX(), fromY = hero.getY();
             hero.updateLocation();
+            sweep(hero, fromX, fromY);
         }
+        hero.holdAxe();
 
         if (bowser != null) {
 
             bowser.setToRight(getHero().getX() > bowser.getX());
+            bowser.attack(engine);
+
+            if (bowser.getHp() <= 10) {
+                for (Obstacle border : groundBricks) {
+                    if (border.getKind() == EntityKind.LAVA_BORDER) {
+                        ((LavaBorder) border).setBurn(true);
+                    }
+                }
+                disposeAll(obstacles, pools);
+            }
 
             if (hero.isGrabbed()) {
                 hero.setVelY(0);
@@ -207,68 +272,111 @@ public class Map {
             }
 
             for (Fire fire : getBowser().getFire()) {
-                fire.updateLocation();
+                addMover(fire);
             }
-            for (Bomb bomb : getBowser().getBomb()) {
-                bomb.updateLocation();
+            ArrayList<Bomb> bombs = getBowser().getBomb();
+            for (int i = bombs.size() - 1; i >= 0; i--) {
+                Bomb bomb = bombs.get(i);
+                if (bomb.isTimeToVanish()) {
+                    removeSwap(bombs, i);
+                    pools.getBombs().release(bomb);
+                } else {
+                    addMover(bomb);
+                }
             }
         }
 
         for (Enemy enemy : enemies) {
-            enemy.updateLocation();
+            if (!enemy.isAsleep()) {
+                addMover(enemy);
+            }
         }
 
-        updatePrizeLocation();
+        for (Fireball fireball : fireballs) {
+            addMover(fireball);
+        }
+
+        EntityStore store = engine.getSession().getEntityStore();
+        store.integrate(moverIds, moverCount);
+        for (int i = 0; i < moverCount; i++) {
+            sweep(store.getOwner(moverIds[i]), moverX[i], moverY[i]);
+        }
+        moverCount = 0;
+
+        updatePrizeLocation(pools);
 
         if (axe != null && axe.isReleased()) {
+            double fromX = axe.getX(), fromY = axe.getY();
             axe.updateLocation();
+            sweep(axe, fromX, fromY);
         }
 
-        for (Fireball fireball : fireballs) {
-            fireball.updateLocation();
+        if (!revealedBricks.isEmpty()) {
+            ParticleSystem particles = engine.getSession().getParticles();
+            for (Brick brick : revealedBricks) {
+                particles.emitBrickBreak(brick.getX(), brick.getY(), brick.getWidth());
+                removeObstacle(brick);
+                getHero().acquirePoints(1);
+            }
+            revealedBricks.clear();
+        }
+        // the boss fight ends at the axe, it has no flag
+        if (endPoint != null) {
+            endPoint.updateLocation();
         }
+    }
 
-        for (Iterator<Brick> brickIterator = revealedBricks.iterator(); brickIterator.hasNext(); ) {
-            Brick brick = brickIterator.next();
-            CoinBrick ifOneCoin;
-            OrdinaryBrick ifOrdinary;
+    private void addMover(GameObject object) {
+        if (!object.hasDefaultMotion()) {
+            double fromX = object.getX(), fromY = object.getY();
+            object.updateLocation();
+            sweep(object, fromX, fromY);
+            return;
+        }
 
-            if (brick instanceof CoinBrick) {
-                ifOneCoin = (CoinBrick) brick;
-                ifOneCoin.animate();
-                if (ifOneCoin.getFrames() < 0) {
-                    obstacles.remove(brick);
-                    getHero().acquirePoints(1);
-                    brickIterator.remove();
-                }
-            } else {
-                ifOrdinary = (OrdinaryBrick) brick;
-                ifOrdinary.animate();
-                if (ifOrdinary.getFrames() < 0) {
-                    obstacles.remove(brick);
-                    getHero().acquirePoints(1);
-                    brickIterator.remove();
-                }
-            }
+        if (moverCount == moverIds.length) {
+            moverIds = Arrays.copyOf(moverIds, moverIds.length * 2);
+            moverX = Arrays.copyOf(moverX, moverIds.length);
+            moverY = Arrays.copyOf(moverY, moverIds.length);
         }
-        endPoint.updateLocation();
+        moverIds[moverCount] = object.getId();
+        moverX[moverCount] = object.getX();
+        moverY[moverCount] = object.getY();
+        moverCount++;
     }
 
-    public void updateLocationsForCrossover() {
+    private void sweep(GameObject object, double fromX, double fromY) {
+        double dx = object.getX() - fromX;
+        double dy = object.getY() - fromY;
+        if (!SweptCollision.isFast(dx, dy)) {
+            return;
+        }
+
+        Rectangle area = object.getBounds().union(new Rectangle((int) fromX, (int) fromY, object.getWidth(), object.getHeight()));
+        double time = SweptCollision.timeOfImpact(object, fromX, fromY, dx, dy, getObstacles(area));
+        if (time < 1) {
+            SweptCollision.moveTo(object, fromX, fromY, dx, dy, time);
+        }
+    }
+
+    public void updateLocationsForCrossover(GameEngine engine) {
+        double fromX = hero.getX(), fromY = hero.getY();
         hero.updateLocation();
-        updatePrizeLocation();
+        sweep(hero, fromX, fromY);
+        hero.holdAxe();
+        updatePrizeLocation(engine.getPools());
     }
 
-    private void updatePrizeLocation() {
+    private void updatePrizeLocation(EntityPools pools) {
         for (Iterator<Prize> prizeIterator = revealedPrizes.iterator(); prizeIterator.hasNext(); ) {
-            Prize prize = prizeIterator.next();
-            if (prize instanceof Coin) {
-                ((Coin) prize).updateLocation();
-                if (((Coin) prize).getRevealBoundary() > ((Coin) prize).getY()) {
-                    prizeIterator.remove();
-                }
-            } else if (prize instanceof PrizeItems) {
-                ((PrizeItems) prize).updateLocation();
+            GameObject prize = (GameObject) prizeIterator.next();
+            if (prize.isAsleep()) {
+                continue;
+            }
+            prize.updateLocation();
+            if (prize.getKind() == EntityKind.COIN && ((Coin) prize).getRevealBoundary() > prize.getY()) {
+                prizeIterator.remove();
+                pools.getCoins().release((Coin) prize);
             }
         }
     }
@@ -314,19 +422,128 @@ public class Map {
     }
 
     public void removeFireball(Fireball object) {
-        fireballs.remove(object);
+        if (removeSwap(fireballs, object)) {
+            EntityPools.getInstance().getFireballs().release(object);
+        }
     }
 
     public void removeEnemy(Enemy object) {
-        enemies.remove(object);
+        if (enemies.remove(object)) {
+            object.dispose();
+        }
     }
 
     public void removePrize(Prize object) {
-        revealedPrizes.remove(object);
+        if (revealedPrizes.remove(object)) {
+            EntityPools.getInstance().release((GameObject) object);
+        }
     }
 
     public void removeObstacle(Obstacle obstacle) {
-        obstacles.remove(obstacle);
+        if (obstacles.remove(obstacle)) {
+            obstacle.dispose();
+        } else if (tileMap != null) {
+            // grid tiles are proxies of a TileMap cell, breaking one empties the cell
+            tileMap.remove(obstacle);
+        }
+    }
+
+    public void removeTile(GameObject object) {
+        if (EntityKind.isEnemy(object.getKind())) {
+            removeEnemy((Enemy) object);
+        } else if (obstacles.remove(object) || groundBricks.remove(object)) {
+            object.dispose();
+        }
+    }
+
+    public void removeObject(GameObject object) {
+        switch (object.getKind()) {
+            case EntityKind.FIREBALL:
+                removeFireball((Fireball) object);
+                break;
+            case EntityKind.GOOMBA:
+            case EntityKind.KOOPA_TROOPA:
+            case EntityKind.SPINY:
+            case EntityKind.PIRANHA:
+            case EntityKind.BOWSER:
+                removeEnemy((Enemy) object);
+                break;
+            case EntityKind.COIN:
+            case EntityKind.PRIZE_ITEM:
+                removePrize((Prize) object);
+                break;
+            case EntityKind.FIRE:
+                if (bowser != null && removeSwap(bowser.getFire(), object)) {
+                    EntityPools.getInstance().getFires().release((Fire) object);
+                }
+                break;
+            case EntityKind.BOMB:
+                if (bowser != null && removeSwap(bowser.getBomb(), object)) {
+                    EntityPools.getInstance().getBombs().release((Bomb) object);
+                }
+                break;
+            default:
+                if (EntityKind.isBrick(object.getKind())) {
+                    removeObstacle((Obstacle) object);
+                }
+                break;
+        }
+    }
+
+    public void dispose() {
+        EntityPools pools = EntityPools.getInstance();
+        if (hero != null) {
+            hero.dispose();
+        }
+        disposeAll(obstacles, pools);
+        disposeAll(groundBricks, pools);
+        disposeAll(enemies, pools);
+        disposeAll(fireballs, pools);
+
+        for (Prize prize : revealedPrizes) {
+            pools.release((GameObject) prize);
+        }
+        revealedPrizes.clear();
+        revealedBricks.clear();
+
+        if (bowser != null) {
+            disposeAll(bowser.getFire(), pools);
+            disposeAll(bowser.getBomb(), pools);
+        }
+        if (castle != null) {
+            castle.dispose();
+        }
+        if (endPoint != null) {
+            endPoint.dispose();
+        }
+        if (tileMap != null) {
+            tileMap.dispose();
+        }
+        ParticleSystem.getInstance().clear();
+    }
+
+    private static void disposeAll(ArrayList<? extends GameObject> objects, EntityPools pools) {
+        for (GameObject object : objects) {
+            pools.release(object);
+        }
+        objects.clear();
+    }
+
+    // order does not matter in these lists, so the last element fills the hole instead of shifting the tail
+    private static boolean removeSwap(ArrayList<?> objects, Object object) {
+        for (int i = objects.size() - 1; i >= 0; i--) {
+            if (objects.get(i) == object) {
+                removeSwap(objects, i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <T> void removeSwap(ArrayList<T> objects, int index) {
+        int last = objects.size() - 1;
+        objects.set(index, objects.get(last));
+        objects.remove(last);
     }
 
     public String getPath() {
@@ -363,11 +580,6 @@ public class Map {
 
     public void setBowser(Bowser bowser) {
         this.bowser = bowser;
-        if (bowser == null) {
-            GameEngine.getInstance().playBowserDies();
-            GameEngine.getInstance().stopBossFightBackground();
-            GameEngine.getInstance().playStageClear();
-        }
     }
 
     public Bowser getBowser() {
@@ -380,7 +592,7 @@ public class Map {
 
     public void stopBurning() {
         for (Obstacle border : groundBricks) {
-            if (border instanceof LavaBorder) {
+            if (border.getKind() == EntityKind.LAVA_BORDER) {
                 ((LavaBorder) border).setBurn(false);
             }
         }
@@ -0,0 +1,133 @@
+package SuperMario.model.map;
+
+import SuperMario.model.EntityKind;
+import SuperMario.model.obstacle.Obstacle;
+
+import java.awt.*;
+import java.util.ArrayList;
+
+public class TileMap {
+
+    public static final int TILE = 48;
+
+    // pipes are anchored at their top left cell and cover the next one too
+    private static final int FOOTPRINT = 1;
+
+    private final int columns, rows;
+    private final byte[] tiles;
+    private final TileType[] types = new TileType[EntityKind.COUNT];
+    // one proxy per cell, made the first time a query reaches it, so no two queries share an obstacle.
+    // a column gets its row of proxies on demand and gives it back when its chunk is released
+    private final Obstacle[][] proxies;
+
+    public TileMap(int columns, int rows) {
+        this.columns = columns;
+        this.rows = rows;
+        this.tiles = new byte[columns * rows];
+        this.proxies = new Obstacle[columns][];
+    }
+
+    public void register(TileType type) {
+        types[type.getKind()] = type;
+    }
+
+    public boolean isTerrain(int kind) {
+        return types[kind] != null;
+    }
+
+    public void set(int column, int row, int kind) {
+        int cell = column * rows + row;
+        if (tiles[cell] != kind + 1) {
+            discard(column, row);
+        }
+        tiles[cell] = (byte) (kind + 1);
+    }
+
+    public void clear(int column, int row) {
+        discard(column, row);
+        tiles[column * rows + row] = 0;
+    }
+
+    public boolean remove(Obstacle obstacle) {
+        int column = (int) obstacle.getX() / TILE, row = (int) obstacle.getY() / TILE;
+        if (column < 0 || column >= columns || row < 0 || row >= rows || proxies[column] == null
+                || proxies[column][row] != obstacle) {
+            return false;
+        }
+        clear(column, row);
+        return true;
+    }
+
+    public int get(int column, int row) {
+        if (column < 0 || column >= columns || row < 0 || row >= rows) {
+            return -1;
+        }
+        return tiles[column * rows + row] - 1;
+    }
+
+    public void query(Rectangle area, ArrayList<Obstacle> nearby) {
+        int firstColumn = Math.max(0, Math.floorDiv(area.x, TILE) - 1 - FOOTPRINT);
+        int lastColumn = Math.min(columns - 1, Math.floorDiv(area.x + area.width, TILE) + 1);
+        int firstRow = Math.max(0, Math.floorDiv(area.y, TILE) - 1 - FOOTPRINT);
+        int lastRow = Math.min(rows - 1, Math.floorDiv(area.y + area.height, TILE) + 1);
+
+        for (int column = firstColumn; column <= lastColumn; column++) {
+            int base = column * rows;
+            for (int row = firstRow; row <= lastRow; row++) {
+                int kind = tiles[base + row] - 1;
+                if (kind >= 0) {
+                    if (proxies[column] == null) {
+                        proxies[column] = new Obstacle[rows];
+                    }
+                    Obstacle proxy = proxies[column][row];
+                    if (proxy == null) {
+                        proxy = types[kind].create(column * TILE, row * TILE);
+                        proxies[column][row] = proxy;
+                    }
+                    nearby.add(proxy);
+                }
+            }
+        }
+    }
+
+    public void draw(Graphics g) {
+        int firstColumn = 0, lastColumn = columns - 1;
+        Rectangle clip = g.getClipBounds();
+        if (clip != null) {
+            firstColumn = Math.max(0, Math.floorDiv(clip.x, TILE) - FOOTPRINT);
+            lastColumn = Math.min(columns - 1, Math.floorDiv(clip.x + clip.width, TILE));
+        }
+
+        for (int column = firstColumn; column <= lastColumn; column++) {
+            int base = column * rows;
+            for (int row = 0; row < rows; row++) {
+                int kind = tiles[base + row] - 1;
+                if (kind >= 0) {
+                    types[kind].draw(g, column * TILE, row * TILE);
+                }
+            }
+        }
+    }
+
+    public void release(int firstColumn, int lastColumn) {
+        for (int column = Math.max(0, firstColumn); column <= Math.min(columns - 1, lastColumn); column++) {
+            if (proxies[column] != null) {
+                for (int row = 0; row < rows; row++) {
+                    discard(column, row);
+                }
+                proxies[column] = null;
+            }
+        }
+    }
+
+    public void dispose() {
+        release(0, columns - 1);
+    }
+
+    private void discard(int column, int row) {
+        if (proxies[column] != null && proxies[column][row] != null) {
+            proxies[column][row].dispose();
+            proxies[column][row] = null;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package SuperMario.model.map;
+
+import SuperMario.model.obstacle.Obstacle;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.function.Supplier;
+
+public class TileType {
+
+    private final int kind;
+    private final BufferedImage style;
+    private final Supplier<Obstacle> factory;
+
+    public TileType(int kind, BufferedImage style, Supplier<Obstacle> factory) {
+        this.kind = kind;
+        this.style = style;
+        this.factory = factory;
+    }
+
+    public int getKind() {
+        return kind;
+    }
+
+    public Obstacle create(double x, double y) {
+        Obstacle proxy = factory.get();
+        proxy.setLocation(x, y);
+        return proxy;
+    }
+
+    public void draw(Graphics g, int x, int y) {
+        if (style != null) {
+            g.drawImage(style, x, y, null);
+        }
+    }
+}
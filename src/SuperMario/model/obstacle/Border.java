@@ -1,5 +1,7 @@
 package SuperMario.model.obstacle;
 
+import SuperMario.model.EntityKind;
+
 import java.awt.image.BufferedImage;
 
 public class Border extends Obstacle{
@@ -10,4 +12,9 @@ public class Border extends Obstacle{
         setEmpty(true);
         setDimension(48, 48);
     }
+
+    @Override
+    protected int kind() {
+        return EntityKind.BORDER;
+    }
 }
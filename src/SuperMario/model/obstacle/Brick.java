@@ -1,5 +1,6 @@
 package SuperMario.model.obstacle;
 
+import SuperMario.model.EntityKind;
 import SuperMario.logic.GameEngine;
 import SuperMario.model.prize.Prize;
 
@@ -64,4 +65,9 @@ public class Brick extends Obstacle {
         start = 0;
         finish = 0;
     }
-}
\ No newline at end of file
+
+    @Override
+    protected int kind() {
+        return EntityKind.BRICK;
+    }
+}
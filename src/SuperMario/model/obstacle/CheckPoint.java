@@ -1,13 +1,14 @@
 package SuperMario.model.obstacle;
 
-import SuperMario.graphic.view.animation.Animation;
+import SuperMario.model.EntityKind;
+import SuperMario.graphic.view.animation.AnimationClock;
 import SuperMario.input.ImageLoader;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
 
 public class CheckPoint extends Brick {
-    private Animation animation;
+    private BufferedImage[] frames;
     private boolean checked;
     private boolean isRevealed;
 
@@ -44,21 +45,23 @@ public class CheckPoint extends Brick {
     }
 
     public void animate() {
-        boolean isAnimationTicked = animation.animate(5);
-        if (isAnimationTicked) {
-            setStyle(animation.getCurrentFrame());
-        }
+        setStyle(AnimationClock.getInstance().getFrame(AnimationClock.PRIZE_BRICK, 0, frames));
     }
 
     public void setFrames(BufferedImage[] frames) {
-        setAnimation(new Animation(frames));
-    }
-
-    public void setAnimation(Animation animation) {
-        this.animation = animation;
+        this.frames = frames;
     }
 
     public boolean isRevealed() {
         return isRevealed;
     }
+
+    public boolean isChecked() {
+        return checked;
+    }
+
+    @Override
+    protected int kind() {
+        return EntityKind.CHECK_POINT;
+    }
 }
@@ -1,7 +1,6 @@
 package SuperMario.model.obstacle;
 
-import SuperMario.graphic.view.animation.Animation;
-import SuperMario.input.ImageLoader;
+import SuperMario.model.EntityKind;
 import SuperMario.logic.GameEngine;
 import SuperMario.logic.MapManager;
 import SuperMario.model.prize.Prize;
@@ -12,23 +11,13 @@ import java.awt.image.BufferedImage;
 public class CoinBrick extends SurpriseBrick {
 
     private Prize prize;
-    private Animation animation;
-    private int frames;
+    private boolean breaking;
 
     public CoinBrick(double x, double y, BufferedImage style, Prize prize) {
         super(x, y, style, prize);
         setBreakable(false);
         setEmpty(false);
         this.prize = prize;
-        setAnimation();
-        frames = animation.getLength();
-    }
-
-    private void setAnimation() {
-        ImageLoader imageLoader = ImageLoader.getInstance();
-        BufferedImage[] frames = imageLoader.getBrickFrames();
-
-        animation = new Animation(frames);
     }
 
     @Override
@@ -43,15 +32,13 @@ public class CoinBrick extends SurpriseBrick {
             return toReturn;
         } else {
             MapManager manager = engine.getMapManager();
-            if (!manager.getHero().isSuper())
+            if (!manager.getHero().isSuper() || breaking)
                 return null;
 
+            breaking = true;
             manager.addRevealedBrick(this);
             engine.playBreakBrick();
 
-            double newX = getX() - 27, newY = getY() - 27;
-            setLocation(newX, newY);
-
             return null;
         }
     }
@@ -65,21 +52,17 @@ public class CoinBrick extends SurpriseBrick {
         }
     }
 
-    public int getFrames() {
-        return frames;
-    }
-
     @Override
     public void animate() {
-        boolean isAnimationTicked = animation.animate(30);
-        if (isAnimationTicked) {
-            setStyle(animation.getCurrentFrame());
-            frames--;
-        }
     }
 
     @Override
     public Prize getPrize() {
         return prize;
     }
+
+    @Override
+    protected int kind() {
+        return EntityKind.COIN_BRICK;
+    }
 }
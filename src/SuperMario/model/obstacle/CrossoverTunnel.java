@@ -1,5 +1,6 @@
 package SuperMario.model.obstacle;
 
+import SuperMario.model.EntityKind;
 import SuperMario.model.hero.Hero;
 
 import java.awt.image.BufferedImage;
@@ -23,4 +24,9 @@ public class CrossoverTunnel extends Pipe{
     public boolean isRevealed() {
         return isRevealed;
     }
+
+    @Override
+    protected int kind() {
+        return EntityKind.CROSSOVER_TUNNEL;
+    }
 }
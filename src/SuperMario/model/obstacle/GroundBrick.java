@@ -1,5 +1,7 @@
 package SuperMario.model.obstacle;
 
+import SuperMario.model.EntityKind;
+
 import java.awt.image.BufferedImage;
 
 public class GroundBrick extends Brick {
@@ -10,4 +12,8 @@ public class GroundBrick extends Brick {
         setEmpty(true);
     }
 
+    @Override
+    protected int kind() {
+        return EntityKind.GROUND_BRICK;
+    }
 }
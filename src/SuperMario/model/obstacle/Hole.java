@@ -1,5 +1,7 @@
 package SuperMario.model.obstacle;
 
+import SuperMario.model.EntityKind;
+
 import java.awt.*;
 import java.awt.image.BufferedImage;
 
@@ -15,4 +17,9 @@ public class Hole extends Obstacle{
     public void draw(Graphics g) {
         super.draw(g);
     }
+
+    @Override
+    protected int kind() {
+        return EntityKind.HOLE;
+    }
 }
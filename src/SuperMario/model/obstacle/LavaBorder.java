@@ -1,13 +1,14 @@
 package SuperMario.model.obstacle;
 
-import SuperMario.graphic.view.animation.Animation;
+import SuperMario.model.EntityKind;
+import SuperMario.graphic.view.animation.AnimationClock;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
 
 public class LavaBorder extends Border {
 
-    private Animation animation;
+    private BufferedImage[] frames;
     private boolean burn;
     private final BufferedImage mainStyle;
 
@@ -35,13 +36,15 @@ public class LavaBorder extends Border {
     }
 
     public void setFrames(BufferedImage[] frames) {
-        animation = new Animation(frames);
+        this.frames = frames;
     }
 
     public void animate() {
-        boolean isAnimationTicked = animation.animate(8);
-        if (isAnimationTicked) {
-            setStyle(animation.getCurrentFrame());
-        }
+        setStyle(AnimationClock.getInstance().getFrame(AnimationClock.LAVA, 0, frames));
+    }
+
+    @Override
+    protected int kind() {
+        return EntityKind.LAVA_BORDER;
     }
 }
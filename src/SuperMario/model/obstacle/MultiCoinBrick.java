@@ -2,6 +2,8 @@ package SuperMario.model.obstacle;
 
 
 
+import SuperMario.model.EntityKind;
+import SuperMario.model.EntityPools;
 import SuperMario.logic.GameEngine;
 import SuperMario.model.prize.Coin;
 import SuperMario.model.prize.Prize;
@@ -30,11 +32,16 @@ public class MultiCoinBrick extends SurpriseBrick {
 
 
         if (numberOfCoinsLeft > 0) {
-            Coin coin = new Coin(((Coin) prize).getX(), ((Coin) prize).getY(), ((Coin) prize).getStyle(), 10);
+            Coin current = (Coin) prize;
             numberOfCoinsLeft--;
             toReturn = prize;
             prize.reveal();
-            prize = coin;
+            prize = null;
+            if (numberOfCoinsLeft > 0) {
+                Coin coin = EntityPools.getInstance().getCoins().acquire();
+                coin.reset(current.getX(), current.getY(), current.getStyle(), 10);
+                prize = coin;
+            }
         }
 
         if (numberOfCoinsLeft <= 0) {
@@ -48,4 +55,14 @@ public class MultiCoinBrick extends SurpriseBrick {
     @Override
     public void animate() {
     }
+
+    @Override
+    public Prize getPrize() {
+        return prize;
+    }
+
+    @Override
+    protected int kind() {
+        return EntityKind.MULTI_COIN_BRICK;
+    }
 }
@@ -1,5 +1,7 @@
 package SuperMario.model.obstacle;
 
+import SuperMario.model.EntityKind;
+
 import java.awt.image.BufferedImage;
 
 public class Pipe extends Obstacle {
@@ -10,4 +12,9 @@ public class Pipe extends Obstacle {
         setEmpty(true);
         setDimension(96, 96);
     }
+
+    @Override
+    protected int kind() {
+        return EntityKind.PIPE;
+    }
 }
@@ -1,9 +1,10 @@
 package SuperMario.model.obstacle;
 
+import SuperMario.model.EntityKind;
+import SuperMario.logic.TickScheduler;
+
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.util.Timer;
-import java.util.TimerTask;
 
 public class Slime extends Brick {
     private BufferedImage slimeOnTouch;
@@ -34,13 +35,17 @@ public class Slime extends Brick {
     }
 
     public void setTimerToReStyle() {
-        TimerTask task = new TimerTask() {
+        Runnable task = new Runnable() {
             @Override
             public void run() {
                 onTouch = false;
             }
         };
-        Timer timer = new Timer();
-        timer.schedule(task, 500);
+        TickScheduler.getInstance().schedule(task, 500);
+    }
+
+    @Override
+    protected int kind() {
+        return EntityKind.SLIME;
     }
 }
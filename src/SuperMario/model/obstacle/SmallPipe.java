@@ -1,5 +1,7 @@
 package SuperMario.model.obstacle;
 
+import SuperMario.model.EntityKind;
+
 import java.awt.image.BufferedImage;
 
 public class SmallPipe extends Brick{
@@ -9,4 +11,9 @@ public class SmallPipe extends Brick{
         setBreakable(false);
         setEmpty(true);
         setDimension(96, 48);}
+
+    @Override
+    protected int kind() {
+        return EntityKind.SMALL_PIPE;
+    }
 }
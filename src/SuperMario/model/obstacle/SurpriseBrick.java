@@ -1,8 +1,11 @@
 package SuperMario.model.obstacle;
 
 
-import SuperMario.graphic.view.animation.Animation;
+import SuperMario.model.EntityKind;
+import SuperMario.model.EntityPools;
+import SuperMario.graphic.view.animation.AnimationClock;
 import SuperMario.logic.GameEngine;
+import SuperMario.model.GameObject;
 import SuperMario.model.prize.Prize;
 
 import java.awt.*;
@@ -11,7 +14,7 @@ import java.awt.image.BufferedImage;
 public class SurpriseBrick extends Brick {
 
     private Prize prize;
-    private Animation animation;
+    private BufferedImage[] frames;
 
     public SurpriseBrick(double x, double y, BufferedImage style, Prize prize) {
         super(x, y, style);
@@ -42,6 +45,15 @@ public class SurpriseBrick extends Brick {
         return prize;
     }
 
+    @Override
+    public void dispose() {
+        super.dispose();
+        if (getPrize() != null) {
+            // a multi coin brick holds a pooled coin, it goes back to the pool rather than giving up its slot
+            EntityPools.getInstance().release((GameObject) getPrize());
+        }
+    }
+
     @Override
     public void draw(Graphics g) {
         super.draw(g);
@@ -51,19 +63,15 @@ public class SurpriseBrick extends Brick {
     }
 
     public void animate() {
-        boolean isAnimationTicked = animation.animate(5);
-        if (isAnimationTicked) {
-            setStyle(animation.getCurrentFrame());
-        }
+        setStyle(AnimationClock.getInstance().getFrame(AnimationClock.PRIZE_BRICK, 0, frames));
     }
 
     public void setFrames(BufferedImage[] frames) {
-        setAnimation(new Animation(frames));
+        this.frames = frames;
     }
 
-    public void setAnimation(Animation animation) {
-        this.animation = animation;
+    @Override
+    protected int kind() {
+        return EntityKind.SURPRISE_BRICK;
     }
-
-
 }
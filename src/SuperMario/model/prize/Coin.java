@@ -1,5 +1,6 @@
 package SuperMario.model.prize;
 
+import SuperMario.model.EntityKind;
 import SuperMario.logic.GameEngine;
 import SuperMario.model.GameObject;
 import SuperMario.model.hero.Hero;
@@ -11,14 +12,24 @@ import java.awt.image.BufferedImage;
 
 public class Coin extends GameObject implements Prize {
 
-    private final int point;
+    private int point;
     private boolean revealed, acquired = false;
-    private final int revealBoundary;
+    private int revealBoundary;
 
     public Coin(double x, double y, BufferedImage style, int point) {
         super(x, y, style);
+        setUp(point);
+    }
+
+    public void reset(double x, double y, BufferedImage style, int point) {
+        reuse(x, y, style);
+        setUp(point);
+    }
+
+    private void setUp(int point) {
         this.point = point;
         revealed = false;
+        acquired = false;
         setDimension(30, 42);
         revealBoundary = (int) getY() - getDimension().height;
     }
@@ -43,6 +54,11 @@ public class Coin extends GameObject implements Prize {
         }
     }
 
+    @Override
+    public boolean hasDefaultMotion() {
+        return false;
+    }
+
     @Override
     public void updateLocation() {
         if (revealed) {
@@ -60,4 +76,9 @@ public class Coin extends GameObject implements Prize {
     public int getRevealBoundary() {
         return revealBoundary;
     }
+
+    @Override
+    protected int kind() {
+        return EntityKind.COIN;
+    }
 }
@@ -1,5 +1,6 @@
 package SuperMario.model.prize;
 
+import SuperMario.model.EntityKind;
 import SuperMario.input.ImageLoader;
 import SuperMario.logic.GameEngine;
 import SuperMario.model.GameObject;
@@ -41,8 +42,8 @@ public abstract class PrizeItems extends GameObject implements Prize {
 
         HeroForm newForm = null;
         ImageLoader imageLoader = ImageLoader.getInstance();
-        BufferedImage[] leftFrames = imageLoader.getHeroLeftFrames(heroFormType);
-        BufferedImage[] rightFrames = imageLoader.getHeroRightFrames(heroFormType);
+        BufferedImage[] leftFrames = imageLoader.getHeroLeftFrames(hero.getType(), heroFormType);
+        BufferedImage[] rightFrames = imageLoader.getHeroRightFrames(hero.getType(), heroFormType);
 
         if (heroFormType == HeroForm.SUPER) {
             newForm = new HeroForm(leftFrames, rightFrames, true, false, hero.getType());
@@ -58,6 +59,11 @@ public abstract class PrizeItems extends GameObject implements Prize {
         return point;
     }
 
+    @Override
+    public boolean hasDefaultMotion() {
+        return false;
+    }
+
     @Override
     public void updateLocation() {
         if (revealed) {
@@ -82,4 +88,8 @@ public abstract class PrizeItems extends GameObject implements Prize {
         this.point = point;
     }
 
+    @Override
+    protected int kind() {
+        return EntityKind.PRIZE_ITEM;
+    }
 }
@@ -2,11 +2,10 @@ package SuperMario.model.prize;
 
 
 import SuperMario.logic.GameEngine;
+import SuperMario.logic.TickScheduler;
 import SuperMario.model.hero.Hero;
 
 import java.awt.image.BufferedImage;
-import java.util.Timer;
-import java.util.TimerTask;
 
 public class SuperStar extends PrizeItems {
 
@@ -25,7 +24,7 @@ public class SuperStar extends PrizeItems {
     }
 
     public void setTimerToJump() {
-        TimerTask task = new TimerTask() {
+        Runnable task = new Runnable() {
             @Override
             public void run() {
                 if (Math.floor(getY()) == (720 - 96 - 48 + 1) && !isJumping()) {
@@ -38,8 +37,7 @@ public class SuperStar extends PrizeItems {
 
         if (!isJumpTimerActivated && Math.floor(getY()) == (720 - 96 - 48 + 1) && !isJumping() && !isFalling()) {
             isJumpTimerActivated = true;
-            Timer timer = new Timer();
-            timer.schedule(task, 1000);
+            TickScheduler.getInstance().schedule(task, 1000);
 
         }
     }
@@ -1,7 +1,8 @@
 package SuperMario.model.weapon;
 
 
-import SuperMario.graphic.view.animation.Animation;
+import SuperMario.model.EntityKind;
+import SuperMario.graphic.view.animation.AnimationClock;
 import SuperMario.input.ImageLoader;
 import SuperMario.model.GameObject;
 import SuperMario.model.hero.Hero;
@@ -11,10 +12,10 @@ import java.awt.image.BufferedImage;
 
 public class Axe extends GameObject {
 
-    private final Hero hero;
+    private Hero hero;
     private boolean isReleased = false;
     private BufferedImage leftStyle;
-    private final Animation axeAnimation;
+    private final BufferedImage[] frames;
     private double xReleasePoint;
     private boolean gotThere = false;
     private boolean gotBack = false;
@@ -22,8 +23,27 @@ public class Axe extends GameObject {
 
     public Axe(double x, double y, BufferedImage style, Hero hero) {
         super(x, y, style);
+        this.frames = ImageLoader.getInstance().axeFrames();
+        setUp(hero);
+    }
+
+    public void reset(double x, double y, BufferedImage style, Hero hero) {
+        reuse(x, y, style);
+        setUp(hero);
+    }
+
+    public void park() {
+        // a map can still hold it until the next activation, it must not fly on its own
+        isReleased = false;
+        hero = null;
+        setAsleep(true);
+    }
+
+    private void setUp(Hero hero) {
         this.hero = hero;
-        this.axeAnimation = new Animation(ImageLoader.getInstance().axeFrames());
+        isReleased = false;
+        gotThere = false;
+        gotBack = false;
         setDimension(68, 68);
         setFalling(false);
         setJumping(false);
@@ -45,10 +65,7 @@ public class Axe extends GameObject {
     }
 
     public void animate() {
-        boolean isAnimationTicked = axeAnimation.animate(25);
-        if (isAnimationTicked) {
-            setStyle(axeAnimation.getCurrentFrame());
-        }
+        setStyle(AnimationClock.getInstance().getFrame(AnimationClock.AXE, 0, frames));
     }
 
     public void setReleased(boolean released, double xReleasePoint) {
@@ -70,6 +87,11 @@ public class Axe extends GameObject {
         this.leftStyle = leftStyle;
     }
 
+    @Override
+    public boolean hasDefaultMotion() {
+        return false;
+    }
+
     @Override
     public void updateLocation() {
         if (gotThere) {
@@ -96,4 +118,9 @@ public class Axe extends GameObject {
             hero.deactivateAxe();
         }
     }
+
+    @Override
+    protected int kind() {
+        return EntityKind.AXE;
+    }
 }
@@ -1,6 +1,7 @@
 package SuperMario.model.weapon;
 
 
+import SuperMario.model.EntityKind;
 import SuperMario.model.GameObject;
 
 import java.awt.image.BufferedImage;
@@ -9,6 +10,15 @@ public class Fireball extends GameObject {
 
     public Fireball(double x, double y, BufferedImage style, boolean toRight) {
         super(x, y, style);
+        setUp(toRight);
+    }
+
+    public void reset(double x, double y, BufferedImage style, boolean toRight) {
+        reuse(x, y, style);
+        setUp(toRight);
+    }
+
+    private void setUp(boolean toRight) {
         setDimension(24, 24);
         setFalling(false);
         setJumping(false);
@@ -19,4 +29,9 @@ public class Fireball extends GameObject {
             setVelX(-10);
         }
     }
+
+    @Override
+    protected int kind() {
+        return EntityKind.FIREBALL;
+    }
 }
@@ -0,0 +1,215 @@
+package SuperMario.repository;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+public class LegacySaveReader implements SaveReader {
+
+    private final ByteBuffer buffer;
+    private final StringBuilder text = new StringBuilder();
+    private int field;
+    private byte type;
+    private long longValue;
+    private double doubleValue;
+    private boolean booleanValue;
+    private String stringValue;
+    private boolean finished;
+
+    public LegacySaveReader(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        skipWhitespace();
+        expect('{');
+    }
+
+    @Override
+    public boolean next() throws IOException {
+        while (!finished) {
+            skipWhitespace();
+            char c = peek();
+            if (c == '}') {
+                buffer.get();
+                finished = true;
+                return false;
+            }
+            if (c == ',') {
+                buffer.get();
+                skipWhitespace();
+            }
+
+            field = SaveField.forLegacyKey(readString());
+            skipWhitespace();
+            expect(':');
+            skipWhitespace();
+            readValue();
+
+            if (field == SaveField.END || type == 0) {
+                // keys this version does not know and nulls are treated as absent
+                continue;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private void readValue() throws IOException {
+        char c = peek();
+        if (c == '"') {
+            type = SaveField.STRING;
+            stringValue = readString();
+        } else if (c == 't' || c == 'f') {
+            type = SaveField.BOOLEAN;
+            booleanValue = c == 't';
+            skipLiteral(booleanValue ? "true" : "false");
+        } else if (c == 'n') {
+            type = 0;
+            skipLiteral("null");
+        } else {
+            readNumber();
+        }
+    }
+
+    private void readNumber() throws IOException {
+        text.setLength(0);
+        boolean fraction = false;
+        while (buffer.hasRemaining()) {
+            char c = (char) buffer.get(buffer.position());
+            if ((c >= '0' && c <= '9') || c == '-' || c == '+') {
+                text.append(c);
+            } else if (c == '.' || c == 'e' || c == 'E') {
+                text.append(c);
+                fraction = true;
+            } else {
+                break;
+            }
+            buffer.get();
+        }
+
+        try {
+            if (fraction) {
+                type = SaveField.DOUBLE;
+                doubleValue = Double.parseDouble(text.toString());
+            } else {
+                type = SaveField.INT;
+                longValue = Long.parseLong(text.toString());
+                doubleValue = longValue;
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed number " + text + " in legacy save");
+        }
+    }
+
+    private String readString() throws IOException {
+        expect('"');
+        text.setLength(0);
+        while (true) {
+            char c = nextChar();
+            if (c == '"') {
+                return text.toString();
+            }
+            if (c != '\\') {
+                text.append(c);
+                continue;
+            }
+
+            char escaped = nextChar();
+            switch (escaped) {
+                case 'n':
+                    text.append('\n');
+                    break;
+                case 't':
+                    text.append('\t');
+                    break;
+                case 'r':
+                    text.append('\r');
+                    break;
+                case 'b':
+                    text.append('\b');
+                    break;
+                case 'f':
+                    text.append('\f');
+                    break;
+                case 'u':
+                    int code = 0;
+                    for (int i = 0; i < 4; i++) {
+                        code = code * 16 + Character.digit(nextChar(), 16);
+                    }
+                    text.append((char) code);
+                    break;
+                default:
+                    text.append(escaped);
+                    break;
+            }
+        }
+    }
+
+    @Override
+    public int getField() {
+        return field;
+    }
+
+    @Override
+    public int getInt() throws IOException {
+        expectType(SaveField.INT);
+        return (int) longValue;
+    }
+
+    @Override
+    public double getDouble() throws IOException {
+        // json-simple wrote whole doubles like 0.0, but hand edited slots may not
+        if (type != SaveField.INT) {
+            expectType(SaveField.DOUBLE);
+        }
+        return doubleValue;
+    }
+
+    @Override
+    public boolean getBoolean() throws IOException {
+        expectType(SaveField.BOOLEAN);
+        return booleanValue;
+    }
+
+    @Override
+    public String getString() throws IOException {
+        expectType(SaveField.STRING);
+        return stringValue;
+    }
+
+    private void expectType(byte expected) throws IOException {
+        if (type != expected) {
+            throw new IOException("\"" + SaveField.getLegacyKey(field) + "\" is not of type " + expected);
+        }
+    }
+
+    private void skipLiteral(String literal) throws IOException {
+        for (int i = 0; i < literal.length(); i++) {
+            expect(literal.charAt(i));
+        }
+    }
+
+    private void skipWhitespace() throws IOException {
+        while (Character.isWhitespace(peek())) {
+            buffer.get();
+        }
+    }
+
+    private void expect(char expected) throws IOException {
+        char c = nextChar();
+        if (c != expected) {
+            throw new IOException("Expected '" + expected + "' but found '" + c + "' in legacy save");
+        }
+    }
+
+    private char peek() throws IOException {
+        if (!buffer.hasRemaining()) {
+            throw new IOException("Legacy save ends unexpectedly");
+        }
+        return (char) (buffer.get(buffer.position()) & 0xFF);
+    }
+
+    private char nextChar() throws IOException {
+        if (!buffer.hasRemaining()) {
+            throw new IOException("Legacy save ends unexpectedly");
+        }
+        return (char) (buffer.get() & 0xFF);
+    }
+}
@@ -2,59 +2,106 @@ package SuperMario.repository;
 
 import SuperMario.logic.UserData;
 import SuperMario.model.hero.*;
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
-import org.json.simple.parser.ParseException;
 
-import java.io.File;
+import java.awt.image.BufferedImage;
 import java.io.IOException;
-import java.nio.charset.Charset;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.List;
 
 import static SuperMario.repository.SavePaths.*;
 
 public class LoadGameRepository {
 
-    private JSONObject object = new JSONObject();
-
     public UserData getUserData(int fileNumber) throws IOException {
 
-        jsonToReadFile(fileNumber);
-
-        Long typeAsLong = (Long) object.get("Hero Type");
-        int type = typeAsLong.intValue();
-        Boolean isSuper = (Boolean) object.get("Hero form is super");
-        Boolean canShootFire = (Boolean) object.get("Hero form can shoot");
-        Long formTypeAsLong = (Long) object.get("Hero form type");
-        int formType = formTypeAsLong.intValue();
-        Long livesAsLong = (Long) object.get("Remaining Lives");
-        int lives = livesAsLong.intValue();
-        Long pointsAsLong = (Long) object.get("Points");
-        int points = pointsAsLong.intValue();
-        Double timer = (Double) object.get("Invincibility Timer");
-        Double x = (Double) object.get("Dimensional X");
-        Double y = (Double) object.get("Dimensional Y");
-        Long coinsAsLong = (Long) object.get("Coins");
-        int coins = coinsAsLong.intValue();
-        Boolean toRight = (Boolean) object.get("To right");
-        Long heightAsLong = (Long) object.get("Dimensional height");
-        int height = heightAsLong.intValue();
-        Long widthAsLong = (Long) object.get("Dimensional width");
-        int width = widthAsLong.intValue();
-        Double gravityAcc = (Double) object.get("Gravity Acc");
-        Boolean falling = (Boolean) object.get("Falling");
-        Boolean jumping = (Boolean) object.get("Jumping");
-        String mapPath = (String) object.get("Map path");
-        Long worldNumberAsLong = (Long) object.get("World number");
-        int worldNumber = worldNumberAsLong.intValue();
+        SaveReader reader = SaveFormat.open(getReadablePath(fileNumber));
+
+        int type = HeroType.MARIO, formType = 0, lives = 0, points = 0, coins = 0, height = 0, width = 0, worldNumber = 0;
+        boolean isSuper = false, canShootFire = false, toRight = false, falling = false, jumping = false;
+        double timer = 0, x = 0, y = 0, gravityAcc = 0;
+        String mapPath = null;
         boolean[] typesOwned = new boolean[5];
         typesOwned[HeroType.MARIO] = true;
-        typesOwned[HeroType.LUIGI] = (Boolean) object.get("Owns Luigi");
-        typesOwned[HeroType.PRINCESS_PEACH] = (Boolean) object.get("Owns Princess Peach");
-        typesOwned[HeroType.ROSALINA] = (Boolean) object.get("Owns Rosalina");
-        typesOwned[HeroType.TOAD] = (Boolean) object.get("Owns Toad");
+        long seen = 0;
+
+        while (reader.next()) {
+            int field = reader.getField();
+            seen |= 1L << field;
+
+            switch (field) {
+                case SaveField.HERO_TYPE:
+                    type = reader.getInt();
+                    break;
+                case SaveField.IS_SUPER:
+                    isSuper = reader.getBoolean();
+                    break;
+                case SaveField.CAN_SHOOT_FIRE:
+                    canShootFire = reader.getBoolean();
+                    break;
+                case SaveField.FORM_TYPE:
+                    formType = reader.getInt();
+                    break;
+                case SaveField.REMAINING_LIVES:
+                    lives = reader.getInt();
+                    break;
+                case SaveField.POINTS:
+                    points = reader.getInt();
+                    break;
+                case SaveField.INVINCIBILITY_TIMER:
+                    timer = reader.getDouble();
+                    break;
+                case SaveField.X:
+                    x = reader.getDouble();
+                    break;
+                case SaveField.Y:
+                    y = reader.getDouble();
+                    break;
+                case SaveField.COINS:
+                    coins = reader.getInt();
+                    break;
+                case SaveField.TO_RIGHT:
+                    toRight = reader.getBoolean();
+                    break;
+                case SaveField.HEIGHT:
+                    height = reader.getInt();
+                    break;
+                case SaveField.WIDTH:
+                    width = reader.getInt();
+                    break;
+                case SaveField.GRAVITY_ACC:
+                    gravityAcc = reader.getDouble();
+                    break;
+                case SaveField.FALLING:
+                    falling = reader.getBoolean();
+                    break;
+                case SaveField.JUMPING:
+                    jumping = reader.getBoolean();
+                    break;
+                case SaveField.OWNS_LUIGI:
+                    typesOwned[HeroType.LUIGI] = reader.getBoolean();
+                    break;
+                case SaveField.OWNS_PRINCESS_PEACH:
+                    typesOwned[HeroType.PRINCESS_PEACH] = reader.getBoolean();
+                    break;
+                case SaveField.OWNS_ROSALINA:
+                    typesOwned[HeroType.ROSALINA] = reader.getBoolean();
+                    break;
+                case SaveField.OWNS_TOAD:
+                    typesOwned[HeroType.TOAD] = reader.getBoolean();
+                    break;
+                case SaveField.MAP_PATH:
+                    mapPath = reader.getString();
+                    break;
+                case SaveField.WORLD_NUMBER:
+                    worldNumber = reader.getInt();
+                    break;
+            }
+        }
+
+        if ((seen & SaveField.REQUIRED) != SaveField.REQUIRED) {
+            throw new IOException("Save on slot " + fileNumber + " is incomplete");
+        }
 
         Hero hero;
 
@@ -100,32 +147,38 @@ public class LoadGameRepository {
         return userData;
     }
 
-    private void jsonToReadFile(int fileNumber) throws IOException {
-
-        String address = filePaths[0];
-
-        if (isFileIdValid(fileNumber)) {
-            address = filePaths[fileNumber];
+    private Path getReadablePath(int fileNumber) {
+        if (!isFileIdValid(fileNumber)) {
+            fileNumber = 0;
         }
 
-        Charset encoding = Charset.defaultCharset();
-        List<String> lines = Files.readAllLines(Paths.get(address), encoding);
+        Path path = Paths.get(getSlotPath(fileNumber));
+        if (!Files.exists(path)) {
+            path = Paths.get(getLegacySlotPath(fileNumber));
+        }
+        return path;
+    }
 
-        JSONParser parser = new JSONParser();
-        String s = String.join("\n", lines);
-        try {
-            object = (JSONObject) parser.parse(s);
-        } catch (ParseException e) {
-            e.printStackTrace();
+    public byte[] getWorldState(int fileNumber) throws IOException {
+        if (!isFileIdValid(fileNumber)) {
+            return null;
         }
+        return WorldSnapshot.read(Paths.get(getWorldPath(fileNumber)));
     }
 
     public boolean isFileEmpty(int fileId) {
         if (!isFileIdValid(fileId)) {
             return false;
         }
-        File file = new File(filePaths[fileId]);
-        return file.length() == 0;
+        return !SaveIndex.getInstance().contains(fileId);
+    }
+
+    public SaveIndexEntry getSummary(int fileId) {
+        return SaveIndex.getInstance().getEntry(fileId);
+    }
+
+    public BufferedImage getThumbnail(int fileId) {
+        return SaveIndex.getInstance().getThumbnail(fileId);
     }
 
 }
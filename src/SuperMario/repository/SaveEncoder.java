@@ -0,0 +1,62 @@
+package SuperMario.repository;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class SaveEncoder {
+
+    private ByteBuffer buffer = ByteBuffer.allocate(256);
+
+    public SaveEncoder() {
+        buffer.putInt(SaveFormat.MAGIC);
+        buffer.putShort(SaveFormat.VERSION);
+    }
+
+    public SaveEncoder putInt(int field, int value) {
+        header(field, SaveField.INT, 4);
+        buffer.putInt(value);
+        return this;
+    }
+
+    public SaveEncoder putDouble(int field, double value) {
+        header(field, SaveField.DOUBLE, 8);
+        buffer.putDouble(value);
+        return this;
+    }
+
+    public SaveEncoder putBoolean(int field, boolean value) {
+        header(field, SaveField.BOOLEAN, 1);
+        buffer.put((byte) (value ? 1 : 0));
+        return this;
+    }
+
+    public SaveEncoder putString(int field, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        header(field, SaveField.STRING, 2 + bytes.length);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+        return this;
+    }
+
+    public byte[] toByteArray() {
+        byte[] content = Arrays.copyOf(buffer.array(), buffer.position() + 1);
+        content[content.length - 1] = SaveField.END;
+        return content;
+    }
+
+    private void header(int field, byte type, int size) {
+        if (!SaveField.isKnown(field) || SaveField.getType(field) != type) {
+            throw new IllegalArgumentException("Field " + field + " is not of type " + type);
+        }
+
+        if (buffer.remaining() < 2 + size) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + 2 + size));
+            buffer.flip();
+            grown.put(buffer);
+            buffer = grown;
+        }
+        buffer.put((byte) field);
+        buffer.put(type);
+    }
+}
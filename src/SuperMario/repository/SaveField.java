@@ -0,0 +1,95 @@
+package SuperMario.repository;
+
+import java.util.HashMap;
+
+public class SaveField {
+
+    public static final int END = 0;
+    public static final int HERO_TYPE = 1;
+    public static final int IS_SUPER = 2;
+    public static final int CAN_SHOOT_FIRE = 3;
+    public static final int FORM_TYPE = 4;
+    public static final int REMAINING_LIVES = 5;
+    public static final int POINTS = 6;
+    public static final int INVINCIBILITY_TIMER = 7;
+    public static final int X = 8;
+    public static final int Y = 9;
+    public static final int COINS = 10;
+    public static final int TO_RIGHT = 11;
+    public static final int HEIGHT = 12;
+    public static final int WIDTH = 13;
+    public static final int GRAVITY_ACC = 14;
+    public static final int FALLING = 15;
+    public static final int JUMPING = 16;
+    public static final int OWNS_LUIGI = 17;
+    public static final int OWNS_PRINCESS_PEACH = 18;
+    public static final int OWNS_ROSALINA = 19;
+    public static final int OWNS_TOAD = 20;
+    public static final int MAP_PATH = 21;
+    public static final int WORLD_NUMBER = 22;
+    public static final int COUNT = 23;
+
+    public static final byte INT = 1;
+    public static final byte DOUBLE = 2;
+    public static final byte BOOLEAN = 3;
+    public static final byte STRING = 4;
+
+    // every field a slot needs before a hero can be built from it, owned heroes default to not owned
+    public static final long REQUIRED = ((1L << OWNS_LUIGI) - 1 | 1L << MAP_PATH | 1L << WORLD_NUMBER) & ~1L;
+
+    private static final byte[] types = new byte[COUNT];
+    private static final String[] legacyKeys = new String[COUNT];
+    private static final HashMap<String, Integer> byLegacyKey = new HashMap<>();
+
+    static {
+        define(HERO_TYPE, INT, "Hero Type");
+        define(IS_SUPER, BOOLEAN, "Hero form is super");
+        define(CAN_SHOOT_FIRE, BOOLEAN, "Hero form can shoot");
+        define(FORM_TYPE, INT, "Hero form type");
+        define(REMAINING_LIVES, INT, "Remaining Lives");
+        define(POINTS, INT, "Points");
+        define(INVINCIBILITY_TIMER, DOUBLE, "Invincibility Timer");
+        define(X, DOUBLE, "Dimensional X");
+        define(Y, DOUBLE, "Dimensional Y");
+        define(COINS, INT, "Coins");
+        define(TO_RIGHT, BOOLEAN, "To right");
+        define(HEIGHT, INT, "Dimensional height");
+        define(WIDTH, INT, "Dimensional width");
+        define(GRAVITY_ACC, DOUBLE, "Gravity Acc");
+        define(FALLING, BOOLEAN, "Falling");
+        define(JUMPING, BOOLEAN, "Jumping");
+        define(OWNS_LUIGI, BOOLEAN, "Owns Luigi");
+        define(OWNS_PRINCESS_PEACH, BOOLEAN, "Owns Princess Peach");
+        define(OWNS_ROSALINA, BOOLEAN, "Owns Rosalina");
+        define(OWNS_TOAD, BOOLEAN, "Owns Toad");
+        define(MAP_PATH, STRING, "Map path");
+        define(WORLD_NUMBER, INT, "World number");
+
+        // key names used by the first save format
+        byLegacyKey.put("Owns Prince Peach", OWNS_PRINCESS_PEACH);
+        byLegacyKey.put("Owns Ross", OWNS_ROSALINA);
+    }
+
+    private static void define(int field, byte type, String legacyKey) {
+        types[field] = type;
+        legacyKeys[field] = legacyKey;
+        byLegacyKey.put(legacyKey, field);
+    }
+
+    public static boolean isKnown(int field) {
+        return field > END && field < COUNT;
+    }
+
+    public static byte getType(int field) {
+        return types[field];
+    }
+
+    public static String getLegacyKey(int field) {
+        return legacyKeys[field];
+    }
+
+    public static int forLegacyKey(String key) {
+        Integer field = byLegacyKey.get(key);
+        return field == null ? END : field;
+    }
+}
@@ -0,0 +1,40 @@
+package SuperMario.repository;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class SaveFormat {
+
+    public static final int MAGIC = 0x534D5356;
+    public static final short VERSION = 1;
+
+    private SaveFormat() {
+    }
+
+    public static SaveReader open(Path path) throws IOException {
+        return open(read(path));
+    }
+
+    public static SaveReader open(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() >= 4 && buffer.getInt(buffer.position()) == MAGIC) {
+            return new TaggedSaveReader(buffer);
+        }
+        return new LegacySaveReader(buffer);
+    }
+
+    public static ByteBuffer read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    break;
+                }
+            }
+            buffer.flip();
+            return buffer;
+        }
+    }
+}
@@ -1,58 +1,43 @@
 package SuperMario.repository;
 
 import SuperMario.logic.UserData;
-import SuperMario.model.hero.Hero;
-import SuperMario.model.hero.HeroType;
-import org.json.simple.JSONObject;
 
-import java.io.FileWriter;
+import java.awt.image.BufferedImage;
+import java.nio.file.Paths;
 
-import static SuperMario.repository.SavePaths.filePaths;
-import static SuperMario.repository.SavePaths.isFileIdValid;
+import static SuperMario.repository.SavePaths.*;
 
 public class SaveGameRepository {
-    private final JSONObject object = new JSONObject();
-    public void addUserData(UserData userData, int fileNumber) {
 
-        Hero hero = userData.getHero();
-
-        object.put("Hero Type", hero.getType());
-        object.put("Hero form is super", hero.getHeroForm().isSuper());
-        object.put("Hero form can shoot", hero.getHeroForm().ifCanShootFire());
-        object.put("Hero form type", hero.getHeroForm().getHeroType());
-        object.put("Remaining Lives", hero.getRemainingLives());
-        object.put("Points", hero.getPoints());
-        object.put("Invincibility Timer", hero.getInvincibilityTimer());
-        object.put("Dimensional X", hero.getX());
-        object.put("Dimensional Y", hero.getY());
-        object.put("Coins", hero.getCoins());
-        object.put("To right", hero.getToRight());
-        object.put("Dimensional height", hero.getDimension().height);
-        object.put("Dimensional width", hero.getDimension().width);
-        object.put("Gravity Acc", hero.getGravityAcc());
-        object.put("Falling", hero.isFalling());
-        object.put("Jumping", hero.isJumping());
-
-        object.put("Owns Luigi", userData.getTypesOwned()[HeroType.LUIGI]);
-        object.put("Owns Princess Peach", userData.getTypesOwned()[HeroType.PRINCESS_PEACH]);
-        object.put("Owns Rosalina", userData.getTypesOwned()[HeroType.ROSALINA]);
-        object.put("Owns Toad", userData.getTypesOwned()[HeroType.TOAD]);
-
-        object.put("Map path", userData.getMapPath());
-        object.put("World number" , userData.getWorldNumber());
-
-        addToFile(fileNumber);
+    private final SaveWriter writer = new SaveWriter();
+    private final SaveIndex index = SaveIndex.getInstance();
+
+    public void addUserData(UserData userData, int fileNumber) {
+        addUserData(userData, fileNumber, null, null);
     }
-    private void addToFile(int fileNumber) {
+
+    public void addUserData(UserData userData, int fileNumber, BufferedImage thumbnail, byte[] worldState) {
         if (!isFileIdValid(fileNumber)) {
             return;
         }
 
-        try (FileWriter file = new FileWriter(filePaths[fileNumber])) {
-            file.write(object.toString());
-        } catch (Exception e) {
-            System.out.println("ERROR AT SAVING GAME ON SLOT " + fileNumber + " !");
+        SaveSnapshot snapshot = SaveSnapshot.of(userData);
+        writer.submit(Paths.get(getSlotPath(fileNumber)), snapshot.toBytes());
+        if (worldState != null) {
+            writer.submit(Paths.get(getWorldPath(fileNumber)), worldState);
         }
+
+        if (thumbnail != null) {
+            writer.submit(Paths.get(getThumbnailPath(fileNumber)), SaveIndex.encodeThumbnail(thumbnail));
+            writer.then(() -> index.forgetThumbnail(fileNumber));
+        }
+
+        SaveIndexEntry entry = SaveIndexEntry.of(fileNumber, snapshot, System.currentTimeMillis(), thumbnail != null);
+        writer.submit(Paths.get(INDEX_PATH), index.put(entry));
+        writer.finish(fileNumber);
     }
 
+    public void setSaveListener(SaveListener listener) {
+        writer.setListener(listener);
+    }
 }
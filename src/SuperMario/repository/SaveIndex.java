@@ -0,0 +1,232 @@
+package SuperMario.repository;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.TreeMap;
+
+import static SuperMario.repository.SavePaths.*;
+
+public class SaveIndex {
+
+    public static final int MAGIC = 0x534D5349;
+    // version 1 pointed into a shared thumbnail file, it is rebuilt rather than read
+    public static final short VERSION = 2;
+    public static final int THUMBNAIL_WIDTH = 160;
+    public static final int THUMBNAIL_HEIGHT = 90;
+    public static final int THUMBNAIL_BYTES = THUMBNAIL_WIDTH * THUMBNAIL_HEIGHT * 3;
+
+    private static final int HEADER_SIZE = 4 + 2 + 4;
+    private static final int RECORD_SIZE = 4 + 4 + 4 + 4 + 1 + 8 + 1;
+    private static final SaveIndex instance = new SaveIndex();
+
+    private TreeMap<Integer, SaveIndexEntry> entries;
+    private final HashMap<Integer, BufferedImage> thumbnails = new HashMap<>();
+
+    private SaveIndex() {
+    }
+
+    public static SaveIndex getInstance() {
+        return instance;
+    }
+
+    public synchronized boolean contains(int slot) {
+        return getEntries().containsKey(slot);
+    }
+
+    public synchronized SaveIndexEntry getEntry(int slot) {
+        return getEntries().get(slot);
+    }
+
+    public synchronized ArrayList<SaveIndexEntry> getAllEntries() {
+        return new ArrayList<>(getEntries().values());
+    }
+
+    public synchronized byte[] put(SaveIndexEntry entry) {
+        getEntries().put(entry.getSlot(), entry);
+        thumbnails.remove(entry.getSlot());
+        return encode();
+    }
+
+    public synchronized void forgetThumbnail(int slot) {
+        // called once the new thumbnail is on disk, a read before that would cache the old one again
+        thumbnails.remove(slot);
+    }
+
+    public synchronized BufferedImage getThumbnail(int slot) {
+        if (thumbnails.containsKey(slot)) {
+            return thumbnails.get(slot);
+        }
+
+        SaveIndexEntry entry = getEntries().get(slot);
+        BufferedImage thumbnail = null;
+        if (entry != null && entry.hasThumbnail()) {
+            try {
+                thumbnail = readThumbnail(Paths.get(getThumbnailPath(slot)));
+            } catch (IOException e) {
+                System.out.println("Could not read thumbnail of slot " + slot);
+            }
+        }
+        thumbnails.put(slot, thumbnail);
+        return thumbnail;
+    }
+
+    public static byte[] encodeThumbnail(BufferedImage image) {
+        BufferedImage scaled = new BufferedImage(THUMBNAIL_WIDTH, THUMBNAIL_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = scaled.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g2.drawImage(image, 0, 0, THUMBNAIL_WIDTH, THUMBNAIL_HEIGHT, null);
+        g2.dispose();
+
+        byte[] content = new byte[THUMBNAIL_BYTES];
+        int i = 0;
+        for (int y = 0; y < THUMBNAIL_HEIGHT; y++) {
+            for (int x = 0; x < THUMBNAIL_WIDTH; x++) {
+                int rgb = scaled.getRGB(x, y);
+                content[i++] = (byte) (rgb >> 16);
+                content[i++] = (byte) (rgb >> 8);
+                content[i++] = (byte) rgb;
+            }
+        }
+        return content;
+    }
+
+    private BufferedImage readThumbnail(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(THUMBNAIL_BYTES);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    return null;
+                }
+            }
+        }
+
+        BufferedImage thumbnail = new BufferedImage(THUMBNAIL_WIDTH, THUMBNAIL_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        byte[] content = buffer.array();
+        int i = 0;
+        for (int y = 0; y < THUMBNAIL_HEIGHT; y++) {
+            for (int x = 0; x < THUMBNAIL_WIDTH; x++) {
+                int rgb = (content[i++] & 0xFF) << 16 | (content[i++] & 0xFF) << 8 | (content[i++] & 0xFF);
+                thumbnail.setRGB(x, y, rgb);
+            }
+        }
+        return thumbnail;
+    }
+
+    private TreeMap<Integer, SaveIndexEntry> getEntries() {
+        if (entries == null) {
+            entries = new TreeMap<>();
+            if (!load()) {
+                entries.clear();
+                rebuild();
+            }
+        }
+        return entries;
+    }
+
+    private boolean load() {
+        Path path = Paths.get(INDEX_PATH);
+        if (!Files.exists(path)) {
+            return false;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    break;
+                }
+            }
+            buffer.flip();
+
+            if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getShort() != VERSION) {
+                return false;
+            }
+            int count = buffer.getInt();
+            if (buffer.remaining() < count * RECORD_SIZE) {
+                return false;
+            }
+
+            for (int i = 0; i < count; i++) {
+                SaveIndexEntry entry = new SaveIndexEntry(buffer.getInt(), buffer.getInt(), buffer.getInt(),
+                        buffer.getInt(), buffer.get(), buffer.getLong(), buffer.get() != 0);
+                entries.put(entry.getSlot(), entry);
+            }
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void rebuild() {
+        // slots written before the index existed are read once and indexed without a thumbnail
+        try (DirectoryStream<Path> slots = Files.newDirectoryStream(Paths.get(DATA_FOLDER), "data-game-*.{sav,txt}")) {
+            for (Path slotPath : slots) {
+                indexSlot(slotPath);
+            }
+        } catch (IOException e) {
+            System.out.println("Could not rebuild save index: " + e.getMessage());
+        }
+    }
+
+    private void indexSlot(Path slotPath) {
+        String name = slotPath.getFileName().toString();
+        File file = slotPath.toFile();
+        try {
+            int slot = Integer.parseInt(name.substring("data-game-".length(), name.length() - ".txt".length())) - 1;
+            if (slot < 0 || file.length() == 0 || (name.endsWith(".txt") && Files.exists(Paths.get(getSlotPath(slot))))) {
+                return;
+            }
+
+            int worldNumber = 0, points = 0, coins = 0, heroType = 0;
+            SaveReader reader = SaveFormat.open(slotPath);
+            while (reader.next()) {
+                switch (reader.getField()) {
+                    case SaveField.WORLD_NUMBER:
+                        worldNumber = reader.getInt();
+                        break;
+                    case SaveField.POINTS:
+                        points = reader.getInt();
+                        break;
+                    case SaveField.COINS:
+                        coins = reader.getInt();
+                        break;
+                    case SaveField.HERO_TYPE:
+                        heroType = reader.getInt();
+                        break;
+                }
+            }
+            entries.put(slot, new SaveIndexEntry(slot, worldNumber, points, coins, heroType,
+                    file.lastModified(), false));
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Skipping unreadable save " + name);
+        }
+    }
+
+    private byte[] encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + entries.size() * RECORD_SIZE);
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putInt(entries.size());
+        for (SaveIndexEntry entry : entries.values()) {
+            buffer.putInt(entry.getSlot());
+            buffer.putInt(entry.getWorldNumber());
+            buffer.putInt(entry.getPoints());
+            buffer.putInt(entry.getCoins());
+            buffer.put((byte) entry.getHeroType());
+            buffer.putLong(entry.getTimestamp());
+            buffer.put((byte) (entry.hasThumbnail() ? 1 : 0));
+        }
+        return buffer.array();
+    }
+}
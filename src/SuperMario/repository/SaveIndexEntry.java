@@ -0,0 +1,55 @@
+package SuperMario.repository;
+
+public final class SaveIndexEntry {
+
+    private final int slot;
+    private final int worldNumber;
+    private final int points;
+    private final int coins;
+    private final int heroType;
+    private final long timestamp;
+    private final boolean thumbnail;
+
+    public SaveIndexEntry(int slot, int worldNumber, int points, int coins, int heroType, long timestamp, boolean thumbnail) {
+        this.slot = slot;
+        this.worldNumber = worldNumber;
+        this.points = points;
+        this.coins = coins;
+        this.heroType = heroType;
+        this.timestamp = timestamp;
+        this.thumbnail = thumbnail;
+    }
+
+    public static SaveIndexEntry of(int slot, SaveSnapshot snapshot, long timestamp, boolean thumbnail) {
+        return new SaveIndexEntry(slot, snapshot.getWorldNumber(), snapshot.getPoints(), snapshot.getCoins(),
+                snapshot.getHeroType(), timestamp, thumbnail);
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    public int getWorldNumber() {
+        return worldNumber;
+    }
+
+    public int getPoints() {
+        return points;
+    }
+
+    public int getCoins() {
+        return coins;
+    }
+
+    public int getHeroType() {
+        return heroType;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public boolean hasThumbnail() {
+        return thumbnail;
+    }
+}
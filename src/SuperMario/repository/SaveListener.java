@@ -0,0 +1,8 @@
+package SuperMario.repository;
+
+public interface SaveListener {
+
+    void onSaved(int fileNumber);
+
+    void onSaveFailed(int fileNumber, Exception exception);
+}
@@ -1,15 +1,29 @@
 package SuperMario.repository;
 
 public class SavePaths {
-    public static final String[] filePaths = {
-            "src/data/data-game-1.txt",
-            "src/data/data-game-2.txt",
-            "src/data/data-game-3.txt",
-            "src/data/config-ap.json"
-    };
+    public static final String DATA_FOLDER = "src/data/";
+    public static final String CONFIG_PATH = DATA_FOLDER + "config-ap.json";
+    public static final String INDEX_PATH = DATA_FOLDER + "save-index.bin";
+
+    public static String getSlotPath(int fileId) {
+        return DATA_FOLDER + "data-game-" + (fileId + 1) + ".sav";
+    }
+
+    // JSON slots written by older versions, read until the slot is saved again
+    public static String getLegacySlotPath(int fileId) {
+        return DATA_FOLDER + "data-game-" + (fileId + 1) + ".txt";
+    }
+
+    public static String getWorldPath(int fileId) {
+        return DATA_FOLDER + "world-game-" + (fileId + 1) + ".bin";
+    }
+
+    public static String getThumbnailPath(int fileId) {
+        return DATA_FOLDER + "thumbnail-game-" + (fileId + 1) + ".bin";
+    }
 
     public static boolean isFileIdValid(int fileId) {
-        return fileId < 0 || filePaths.length >= fileId;
+        return fileId >= 0;
     }
 
 }
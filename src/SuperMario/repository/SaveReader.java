@@ -0,0 +1,18 @@
+package SuperMario.repository;
+
+import java.io.IOException;
+
+public interface SaveReader {
+
+    boolean next() throws IOException;
+
+    int getField();
+
+    int getInt() throws IOException;
+
+    double getDouble() throws IOException;
+
+    boolean getBoolean() throws IOException;
+
+    String getString() throws IOException;
+}
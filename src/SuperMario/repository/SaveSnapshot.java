@@ -0,0 +1,100 @@
+package SuperMario.repository;
+
+import SuperMario.logic.UserData;
+import SuperMario.model.hero.Hero;
+import SuperMario.model.hero.HeroType;
+
+public final class SaveSnapshot {
+
+    private final int heroType;
+    private final boolean isSuper;
+    private final boolean canShootFire;
+    private final int formType;
+    private final int remainingLives;
+    private final int points;
+    private final double invincibilityTimer;
+    private final double x, y;
+    private final int coins;
+    private final boolean toRight;
+    private final int width, height;
+    private final double gravityAcc;
+    private final boolean falling, jumping;
+    private final boolean ownsLuigi, ownsPrincessPeach, ownsRosalina, ownsToad;
+    private final String mapPath;
+    private final int worldNumber;
+
+    private SaveSnapshot(UserData userData) {
+        Hero hero = userData.getHero();
+        boolean[] typesOwned = userData.getTypesOwned();
+
+        this.heroType = hero.getType();
+        this.isSuper = hero.getHeroForm().isSuper();
+        this.canShootFire = hero.getHeroForm().ifCanShootFire();
+        this.formType = hero.getHeroForm().getHeroType();
+        this.remainingLives = hero.getRemainingLives();
+        this.points = hero.getPoints();
+        this.invincibilityTimer = hero.getInvincibilityTimer();
+        this.x = hero.getX();
+        this.y = hero.getY();
+        this.coins = hero.getCoins();
+        this.toRight = hero.getToRight();
+        this.width = hero.getWidth();
+        this.height = hero.getHeight();
+        this.gravityAcc = hero.getGravityAcc();
+        this.falling = hero.isFalling();
+        this.jumping = hero.isJumping();
+        this.ownsLuigi = typesOwned[HeroType.LUIGI];
+        this.ownsPrincessPeach = typesOwned[HeroType.PRINCESS_PEACH];
+        this.ownsRosalina = typesOwned[HeroType.ROSALINA];
+        this.ownsToad = typesOwned[HeroType.TOAD];
+        this.mapPath = userData.getMapPath();
+        this.worldNumber = userData.getWorldNumber();
+    }
+
+    public static SaveSnapshot of(UserData userData) {
+        return new SaveSnapshot(userData);
+    }
+
+    public int getHeroType() {
+        return heroType;
+    }
+
+    public int getPoints() {
+        return points;
+    }
+
+    public int getCoins() {
+        return coins;
+    }
+
+    public int getWorldNumber() {
+        return worldNumber;
+    }
+
+    public byte[] toBytes() {
+        return new SaveEncoder()
+                .putInt(SaveField.HERO_TYPE, heroType)
+                .putBoolean(SaveField.IS_SUPER, isSuper)
+                .putBoolean(SaveField.CAN_SHOOT_FIRE, canShootFire)
+                .putInt(SaveField.FORM_TYPE, formType)
+                .putInt(SaveField.REMAINING_LIVES, remainingLives)
+                .putInt(SaveField.POINTS, points)
+                .putDouble(SaveField.INVINCIBILITY_TIMER, invincibilityTimer)
+                .putDouble(SaveField.X, x)
+                .putDouble(SaveField.Y, y)
+                .putInt(SaveField.COINS, coins)
+                .putBoolean(SaveField.TO_RIGHT, toRight)
+                .putInt(SaveField.HEIGHT, height)
+                .putInt(SaveField.WIDTH, width)
+                .putDouble(SaveField.GRAVITY_ACC, gravityAcc)
+                .putBoolean(SaveField.FALLING, falling)
+                .putBoolean(SaveField.JUMPING, jumping)
+                .putBoolean(SaveField.OWNS_LUIGI, ownsLuigi)
+                .putBoolean(SaveField.OWNS_PRINCESS_PEACH, ownsPrincessPeach)
+                .putBoolean(SaveField.OWNS_ROSALINA, ownsRosalina)
+                .putBoolean(SaveField.OWNS_TOAD, ownsToad)
+                .putString(SaveField.MAP_PATH, mapPath)
+                .putInt(SaveField.WORLD_NUMBER, worldNumber)
+                .toByteArray();
+    }
+}
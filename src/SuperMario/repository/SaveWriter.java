@@ -0,0 +1,106 @@
+package SuperMario.repository;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class SaveWriter {
+
+    // one thread behind every repository, so two sessions never write the same save file at once
+    private static final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "save-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ConcurrentHashMap<Path, byte[]> pending = new ConcurrentHashMap<>();
+    private volatile SaveListener listener;
+    // only touched on the writer thread, the first failure since the last finished save
+    private IOException failure;
+
+    public void setListener(SaveListener listener) {
+        this.listener = listener;
+    }
+
+    public void submit(Path target, byte[] content) {
+        // a newer save for the same file replaces the one still waiting
+        if (pending.put(target, content) == null) {
+            writer.execute(() -> write(target));
+        }
+    }
+
+    public void then(Runnable action) {
+        // queued like a file, so it runs once everything submitted before it is on disk
+        writer.execute(action);
+    }
+
+    public void finish(int fileNumber) {
+        // queued behind every file of this save, so it reports once they are all on disk
+        writer.execute(() -> report(fileNumber));
+    }
+
+    private void write(Path target) {
+        byte[] content = pending.remove(target);
+        if (content == null) {
+            return;
+        }
+
+        try {
+            writeAtomically(target, content);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void fail(IOException e) {
+        if (failure == null) {
+            failure = e;
+        }
+    }
+
+    private void report(int fileNumber) {
+        IOException failure = this.failure;
+        this.failure = null;
+
+        SaveListener listener = this.listener;
+        if (failure != null) {
+            if (listener != null) {
+                listener.onSaveFailed(fileNumber, failure);
+            }
+        } else if (listener != null) {
+            listener.onSaved(fileNumber);
+        }
+    }
+
+    public static void writeAtomically(Path target, byte[] content) throws IOException {
+        // a temp file of its own, so a write from another process never lands in this one
+        Path temp = Files.createTempFile(target.toAbsolutePath().getParent(), target.getFileName() + ".", ".tmp");
+
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(content);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package SuperMario.repository;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class TaggedSaveReader implements SaveReader {
+
+    private final ByteBuffer buffer;
+    private int field;
+    private byte type;
+    private int intValue;
+    private double doubleValue;
+    private String stringValue;
+
+    public TaggedSaveReader(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.remaining() < 6 || buffer.getInt() != SaveFormat.MAGIC) {
+            throw new IOException("Not a save file");
+        }
+        short version = buffer.getShort();
+        if (version != SaveFormat.VERSION) {
+            throw new IOException("Unsupported save version " + version);
+        }
+    }
+
+    @Override
+    public boolean next() throws IOException {
+        try {
+            while (true) {
+                field = buffer.get();
+                if (field == SaveField.END) {
+                    return false;
+                }
+                type = buffer.get();
+                readValue();
+
+                if (!SaveField.isKnown(field)) {
+                    // written by a newer version, the type tag was enough to skip it
+                    continue;
+                }
+                if (SaveField.getType(field) != type) {
+                    throw new IOException("Field " + field + " has type " + type + " instead of " + SaveField.getType(field));
+                }
+                return true;
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Save file is truncated");
+        }
+    }
+
+    private void readValue() throws IOException {
+        switch (type) {
+            case SaveField.INT:
+                intValue = buffer.getInt();
+                break;
+            case SaveField.DOUBLE:
+                doubleValue = buffer.getDouble();
+                break;
+            case SaveField.BOOLEAN:
+                intValue = buffer.get();
+                break;
+            case SaveField.STRING:
+                byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+                buffer.get(bytes);
+                stringValue = new String(bytes, StandardCharsets.UTF_8);
+                break;
+            default:
+                throw new IOException("Unknown type " + type + " for field " + field);
+        }
+    }
+
+    @Override
+    public int getField() {
+        return field;
+    }
+
+    @Override
+    public int getInt() throws IOException {
+        expect(SaveField.INT);
+        return intValue;
+    }
+
+    @Override
+    public double getDouble() throws IOException {
+        expect(SaveField.DOUBLE);
+        return doubleValue;
+    }
+
+    @Override
+    public boolean getBoolean() throws IOException {
+        expect(SaveField.BOOLEAN);
+        return intValue != 0;
+    }
+
+    @Override
+    public String getString() throws IOException {
+        expect(SaveField.STRING);
+        return stringValue;
+    }
+
+    private void expect(byte expected) throws IOException {
+        if (type != expected) {
+            throw new IOException("Field " + field + " is not of type " + expected);
+        }
+    }
+}
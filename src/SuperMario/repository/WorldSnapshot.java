@@ -0,0 +1,87 @@
+package SuperMario.repository;
+
+import SuperMario.logic.MapManager;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+public class WorldSnapshot {
+
+    public static final int MAGIC = 0x534D5753;
+    public static final short VERSION = 1;
+    public static final byte DEFLATED = 1;
+
+    private static final int HEADER_SIZE = 4 + 2 + 1;
+
+    private WorldSnapshot() {
+    }
+
+    public static byte[] encode(MapManager mapManager, boolean compress) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+        DataOutputStream header = new DataOutputStream(bytes);
+        header.writeInt(MAGIC);
+        header.writeShort(VERSION);
+        header.writeByte(compress ? DEFLATED : 0);
+        header.flush();
+
+        OutputStream body = bytes;
+        Deflater deflater = null;
+        if (compress) {
+            deflater = new Deflater(Deflater.BEST_SPEED);
+            body = new DeflaterOutputStream(bytes, deflater);
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(body))) {
+            mapManager.writeState(out);
+        } finally {
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    public static void decode(MapManager mapManager, byte[] content) throws IOException {
+        ByteBuffer header = ByteBuffer.wrap(content);
+        if (content.length < HEADER_SIZE || header.getInt() != MAGIC) {
+            throw new IOException("Not a world snapshot");
+        }
+        short version = header.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported world snapshot version " + version);
+        }
+        byte flags = header.get();
+
+        InputStream body = new ByteArrayInputStream(content, HEADER_SIZE, content.length - HEADER_SIZE);
+        if ((flags & DEFLATED) != 0) {
+            body = new InflaterInputStream(body);
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(body))) {
+            mapManager.readState(in);
+        }
+    }
+
+    public static byte[] read(Path source) throws IOException {
+        if (!Files.exists(source)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    break;
+                }
+            }
+            return buffer.array();
+        }
+    }
+}
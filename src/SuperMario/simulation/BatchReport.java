@@ -0,0 +1,97 @@
+package SuperMario.simulation;
+
+import SuperMario.logic.GameEngine;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class BatchReport {
+
+    // workers add results concurrently, adders keep them from contending on a single counter
+    private final LongAdder episodes = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder score = new LongAdder();
+    private final LongAdder coins = new LongAdder();
+    private final LongAdder ticks = new LongAdder();
+    private final LongAdder deaths = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private volatile long elapsedNanos;
+
+    void add(EpisodeResult result) {
+        episodes.increment();
+        if (result.isCompleted()) {
+            completed.increment();
+        }
+        score.add(result.getScore());
+        coins.add(result.getCoins());
+        ticks.add(result.getTicks());
+        deaths.add(result.getDeaths());
+    }
+
+    void fail(Episode episode, RuntimeException exception) {
+        failed.increment();
+        System.out.println("Episode in world " + episode.getWorldNumber() + " with hero " + episode.getHeroType()
+                + " failed: " + exception);
+    }
+
+    void finish(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getEpisodes() {
+        return episodes.sum();
+    }
+
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    public long getScore() {
+        return score.sum();
+    }
+
+    public long getCoins() {
+        return coins.sum();
+    }
+
+    public long getTicks() {
+        return ticks.sum();
+    }
+
+    public long getDeaths() {
+        return deaths.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public double getCompletionRate() {
+        long count = getEpisodes();
+        return count == 0 ? 0 : (double) getCompleted() / count;
+    }
+
+    public double getAverageScore() {
+        long count = getEpisodes();
+        return count == 0 ? 0 : (double) getScore() / count;
+    }
+
+    public double getAverageSeconds() {
+        long count = getEpisodes();
+        return count == 0 ? 0 : (double) getTicks() / GameEngine.TICKS_PER_SECOND / count;
+    }
+
+    public double getEpisodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : getEpisodes() * 1e9 / elapsedNanos;
+    }
+
+    public double getTicksPerSecond() {
+        return elapsedNanos == 0 ? 0 : getTicks() * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d episodes, %.1f%% completed, avg score %.1f, avg time %.1fs, %d deaths, %d failed, %.1f episodes/s (%.0f ticks/s)",
+                getEpisodes(), getCompletionRate() * 100, getAverageScore(), getAverageSeconds(), getDeaths(), getFailed(),
+                getEpisodesPerSecond(), getTicksPerSecond());
+    }
+}
@@ -0,0 +1,150 @@
+package SuperMario.simulation;
+
+import SuperMario.graphic.manager.InputManager;
+import SuperMario.graphic.view.states.GameState;
+import SuperMario.logic.GameEngine;
+import SuperMario.logic.GameSession;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import static java.awt.event.KeyEvent.*;
+
+public class BatchRunner {
+
+    private final ForkJoinPool pool;
+
+    public BatchRunner() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public BatchRunner(int parallelism) {
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    public BatchReport run(List<Episode> episodes) {
+        BatchReport report = new BatchReport();
+        long start = System.nanoTime();
+        pool.invoke(new EpisodeTask(episodes, 0, episodes.size(), report));
+        report.finish(System.nanoTime() - start);
+        return report;
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    public static EpisodeResult play(Episode episode) {
+        GameSession session = GameSession.createHeadless();
+        EpisodeResult[] result = new EpisodeResult[1];
+        try {
+            session.run(() -> result[0] = play(session, episode));
+        } finally {
+            session.close();
+        }
+        return result[0];
+    }
+
+    private static EpisodeResult play(GameSession session, Episode episode) {
+        GameEngine engine = session.getEngine();
+        InputManager input = session.getInputManager();
+
+        engine.selectMap(episode.getWorldNumber());
+        if (engine.getGameState() != GameState.RUNNING) {
+            return new EpisodeResult(false, 0, 0, 0, 0);
+        }
+        engine.loadNewHero(episode.getHeroType());
+
+        int lives = engine.getRemainingLives();
+        int deaths = 0;
+        long tick = 0;
+        while (tick < episode.getMaxTicks()) {
+            episode.getScript().apply(tick, input);
+            if (engine.getGameState() == GameState.CHECKPOINT) {
+                // the prompt is answered with its current selection, scripts pick it with left and right
+                input.press(VK_ENTER);
+                input.release(VK_ENTER);
+            }
+            engine.tick();
+            tick++;
+
+            int remainingLives = engine.getRemainingLives();
+            if (remainingLives < lives) {
+                deaths += lives - remainingLives;
+            }
+            lives = remainingLives;
+
+            GameState state = engine.getGameState();
+            if (state == GameState.GAME_OVER || state == GameState.MISSION_PASSED) {
+                break;
+            }
+        }
+        return new EpisodeResult(engine.getGameState() == GameState.MISSION_PASSED, engine.getScore(),
+                engine.getCoins(), tick, deaths);
+    }
+
+    private static class EpisodeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<Episode> episodes;
+        private final int from;
+        private final int to;
+        private final BatchReport report;
+
+        EpisodeTask(List<Episode> episodes, int from, int to, BatchReport report) {
+            this.episodes = episodes;
+            this.from = from;
+            this.to = to;
+            this.report = report;
+        }
+
+        @Override
+        protected void compute() {
+            // split down to one session per task so idle workers can steal the remaining episodes
+            if (from == to) {
+                return;
+            }
+            if (to - from == 1) {
+                Episode episode = episodes.get(from);
+                try {
+                    report.add(play(episode));
+                } catch (RuntimeException e) {
+                    // one broken episode should not throw away the rest of the batch
+                    report.fail(episode, e);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new EpisodeTask(episodes, from, middle, report), new EpisodeTask(episodes, middle, to, report));
+        }
+    }
+
+    public static void main(String... args) {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 1;
+        int parallelism = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        InputScript runAndJump = (tick, input) -> {
+            if (tick == 0) {
+                input.press(VK_RIGHT);
+            }
+            if (tick % 90 == 0) {
+                input.press(VK_UP);
+            } else if (tick % 90 == 30) {
+                input.release(VK_UP);
+            }
+        };
+
+        ArrayList<Episode> episodes = new ArrayList<>();
+        for (int i = 0; i < rounds; i++) {
+            episodes.addAll(Episode.everyHeroInEveryWorld(runAndJump, 400L * GameEngine.TICKS_PER_SECOND));
+        }
+
+        BatchRunner runner = new BatchRunner(parallelism);
+        System.out.println(runner.run(episodes));
+        runner.shutdown();
+        System.exit(0);
+    }
+}
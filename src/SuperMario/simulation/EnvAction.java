@@ -0,0 +1,16 @@
+package SuperMario.simulation;
+
+public class EnvAction {
+
+    public static final int NONE = 0;
+    public static final int RIGHT = 1;
+    public static final int LEFT = 1 << 1;
+    public static final int JUMP = 1 << 2;
+    public static final int DOWN = 1 << 3;
+    public static final int FIRE = 1 << 4;
+
+    public static final int BUTTONS = 5;
+    // every combination of held buttons
+    public static final int COUNT = 1 << BUTTONS;
+
+}
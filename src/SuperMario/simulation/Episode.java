@@ -0,0 +1,48 @@
+package SuperMario.simulation;
+
+import SuperMario.graphic.view.states.MapSelection;
+import SuperMario.model.hero.HeroType;
+
+import java.util.ArrayList;
+
+public final class Episode {
+
+    private final int worldNumber;
+    private final int heroType;
+    private final InputScript script;
+    private final long maxTicks;
+
+    public Episode(int worldNumber, int heroType, InputScript script, long maxTicks) {
+        this.worldNumber = worldNumber;
+        this.heroType = heroType;
+        this.script = script;
+        this.maxTicks = maxTicks;
+    }
+
+    public static ArrayList<Episode> everyHeroInEveryWorld(InputScript script, long maxTicks) {
+        MapSelection[] worlds = {MapSelection.WORLD_1, MapSelection.WORLD_2, MapSelection.WORLD_3, MapSelection.BOSS_FIGHT};
+        ArrayList<Episode> episodes = new ArrayList<>();
+        for (MapSelection world : worlds) {
+            for (int heroType = 0; heroType < HeroType.COUNT; heroType++) {
+                episodes.add(new Episode(world.getWorldNumber(), heroType, script, maxTicks));
+            }
+        }
+        return episodes;
+    }
+
+    public int getWorldNumber() {
+        return worldNumber;
+    }
+
+    public int getHeroType() {
+        return heroType;
+    }
+
+    public InputScript getScript() {
+        return script;
+    }
+
+    public long getMaxTicks() {
+        return maxTicks;
+    }
+}
@@ -0,0 +1,38 @@
+package SuperMario.simulation;
+
+public final class EpisodeResult {
+
+    private final boolean completed;
+    private final int score;
+    private final int coins;
+    private final long ticks;
+    private final int deaths;
+
+    public EpisodeResult(boolean completed, int score, int coins, long ticks, int deaths) {
+        this.completed = completed;
+        this.score = score;
+        this.coins = coins;
+        this.ticks = ticks;
+        this.deaths = deaths;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getCoins() {
+        return coins;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public int getDeaths() {
+        return deaths;
+    }
+}
@@ -0,0 +1,197 @@
+package SuperMario.simulation;
+
+import SuperMario.graphic.manager.InputManager;
+import SuperMario.graphic.view.states.GameState;
+import SuperMario.logic.GameEngine;
+import SuperMario.logic.GameSession;
+import SuperMario.logic.MapManager;
+import SuperMario.model.hero.Hero;
+
+import static java.awt.event.KeyEvent.*;
+
+public class GameEnv {
+
+    public static final double POINT_REWARD = 0.1;
+    public static final double COIN_REWARD = 1;
+    public static final double PROGRESS_REWARD = 100;
+    public static final double LIFE_REWARD = 50;
+
+    // key held for each EnvAction bit
+    private static final int[] KEYS = {VK_RIGHT, VK_LEFT, VK_UP, VK_DOWN, VK_SPACE};
+
+    private final GameSession session = GameSession.createHeadless();
+    private final Runnable stepper = this::advance;
+    private final long maxTicks;
+
+    private long seed;
+    private int worldNumber;
+    private int heroType;
+    private int held;
+    private int actions;
+    private long ticks;
+    private boolean done = true;
+    private double reward;
+
+    private int points;
+    private int coins;
+    private int lives;
+    private double progress;
+
+    public GameEnv(long maxTicks) {
+        this.maxTicks = maxTicks;
+    }
+
+    public void reset(long seed, int worldNumber, int heroType) {
+        this.seed = seed;
+        this.worldNumber = worldNumber;
+        this.heroType = heroType;
+        session.run(this::restart);
+    }
+
+    private void restart() {
+        GameEngine engine = session.getEngine();
+        releaseAll(session.getInputManager());
+
+        session.getRandom().setSeed(seed);
+        session.getScheduler().clear();
+        engine.getUserData().clear();
+        engine.getMapManager().setChecked(false);
+        engine.resetCamera();
+        engine.selectMap(worldNumber);
+        if (engine.getGameState() != GameState.RUNNING) {
+            throw new IllegalArgumentException("World " + worldNumber + " could not be loaded");
+        }
+        engine.loadNewHero(heroType);
+
+        // settle the first frame so progress starts from the hero's spawn, not the previous map
+        engine.tick();
+        ticks = 0;
+        done = false;
+        reward = 0;
+        points = engine.getScore();
+        coins = engine.getCoins();
+        lives = engine.getRemainingLives();
+        progress = engine.getMapManager().getProgressRate();
+    }
+
+    public double step(int actions) {
+        if (done) {
+            throw new IllegalStateException("Episode is over, reset the environment first");
+        }
+        this.actions = actions;
+        session.run(stepper);
+        return reward;
+    }
+
+    private void advance() {
+        GameEngine engine = session.getEngine();
+        InputManager input = session.getInputManager();
+
+        int changed = held ^ actions;
+        for (int i = 0; i < KEYS.length; i++) {
+            if ((changed & 1 << i) != 0) {
+                if ((actions & 1 << i) != 0) {
+                    input.press(KEYS[i]);
+                } else {
+                    input.release(KEYS[i]);
+                }
+            }
+        }
+        held = actions;
+
+        if (engine.getGameState() == GameState.CHECKPOINT) {
+            // the prompt is answered with its current selection
+            input.press(VK_ENTER);
+            input.release(VK_ENTER);
+        }
+        engine.tick();
+        ticks++;
+
+        MapManager mapManager = engine.getMapManager();
+        int newPoints = engine.getScore();
+        int newCoins = engine.getCoins();
+        int newLives = engine.getRemainingLives();
+        double newProgress = mapManager.getProgressRate();
+
+        reward = (newPoints - points) * POINT_REWARD + (newCoins - coins) * COIN_REWARD
+                + (newLives - lives) * LIFE_REWARD + (newProgress - progress) * PROGRESS_REWARD;
+        points = newPoints;
+        coins = newCoins;
+        lives = newLives;
+        progress = newProgress;
+
+        GameState state = engine.getGameState();
+        done = state == GameState.GAME_OVER || state == GameState.MISSION_PASSED || ticks >= maxTicks;
+    }
+
+    private void releaseAll(InputManager input) {
+        for (int i = 0; i < KEYS.length; i++) {
+            if ((held & 1 << i) != 0) {
+                input.release(KEYS[i]);
+            }
+        }
+        held = 0;
+    }
+
+    public void observe(ObservationEncoder encoder, byte[] grid, float[] features, int index) {
+        MapManager mapManager = session.getMapManager();
+        encoder.encode(mapManager, grid, index * encoder.getGridSize());
+        encoder.encodeHero(mapManager, features, index * ObservationEncoder.HERO_FEATURES);
+    }
+
+    public void close() {
+        session.close();
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    public boolean isCompleted() {
+        return session.getEngine().getGameState() == GameState.MISSION_PASSED;
+    }
+
+    public double getReward() {
+        return reward;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getWorldNumber() {
+        return worldNumber;
+    }
+
+    public int getHeroType() {
+        return heroType;
+    }
+
+    public int getPoints() {
+        return points;
+    }
+
+    public int getCoins() {
+        return coins;
+    }
+
+    public int getLives() {
+        return lives;
+    }
+
+    public double getProgress() {
+        return progress;
+    }
+
+    public Hero getHero() {
+        return session.getUserData().getHero();
+    }
+
+    public GameSession getSession() {
+        return session;
+    }
+}
@@ -0,0 +1,9 @@
+package SuperMario.simulation;
+
+import SuperMario.graphic.manager.InputManager;
+
+public interface InputScript {
+
+    // called before every tick, scripts are shared between episodes so they keep no state of their own
+    void apply(long tick, InputManager input);
+}
@@ -0,0 +1,171 @@
+package SuperMario.simulation;
+
+import SuperMario.logic.MapManager;
+import SuperMario.model.GameObject;
+import SuperMario.model.enemy.bowser.Bowser;
+import SuperMario.model.hero.Hero;
+import SuperMario.model.map.Map;
+import SuperMario.model.map.TileMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class ObservationEncoder {
+
+    public static final int TERRAIN = 0;
+    public static final int ENEMIES = 1;
+    public static final int PRIZES = 2;
+    public static final int PROJECTILES = 3;
+    public static final int HERO = 4;
+    public static final int CHANNELS = 5;
+
+    public static final int VEL_X = 0;
+    public static final int VEL_Y = 1;
+    public static final int OFFSET_X = 2;
+    public static final int OFFSET_Y = 3;
+    public static final int FALLING = 4;
+    public static final int JUMPING = 5;
+    public static final int SUPER = 6;
+    public static final int CAN_SHOOT_FIRE = 7;
+    public static final int INVINCIBLE = 8;
+    public static final int LIVES = 9;
+    public static final int COINS = 10;
+    public static final int PROGRESS = 11;
+    public static final int REMAINING_TIME = 12;
+    public static final int HERO_FEATURES = 13;
+
+    private static final int TILE = TileMap.TILE;
+
+    private final int columns;
+    private final int rows;
+    private final int columnsBehind;
+    private final int cells;
+
+    private byte[] grid;
+    private int offset;
+    private int firstColumn;
+
+    public ObservationEncoder() {
+        // a screen's worth of cells, most of it ahead of the hero
+        this(16, 15, 4);
+    }
+
+    public ObservationEncoder(int columns, int rows, int columnsBehind) {
+        this.columns = columns;
+        this.rows = rows;
+        this.columnsBehind = columnsBehind;
+        this.cells = columns * rows;
+    }
+
+    public int getGridSize() {
+        return CHANNELS * cells;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    // cells hold EntityKind + 1, or 0 when empty, laid out channel by channel and row by row
+    public void encode(MapManager mapManager, byte[] grid, int offset) {
+        Arrays.fill(grid, offset, offset + getGridSize(), (byte) 0);
+        Map map = mapManager.getMap();
+        Hero hero = mapManager.getHero();
+        if (map == null || hero == null) {
+            return;
+        }
+
+        this.grid = grid;
+        this.offset = offset;
+        this.firstColumn = (int) Math.floor(hero.getX() / TILE) - columnsBehind;
+
+        TileMap tileMap = map.getTileMap();
+        if (tileMap != null) {
+            for (int column = 0; column < columns; column++) {
+                for (int row = 0; row < rows; row++) {
+                    int kind = tileMap.get(firstColumn + column, row);
+                    if (kind >= 0) {
+                        grid[offset + TERRAIN * cells + row * columns + column] = (byte) (kind + 1);
+                    }
+                }
+            }
+        }
+        fill(TERRAIN, map.getObstacles());
+        fill(TERRAIN, map.getGroundBricks());
+        fill(ENEMIES, map.getEnemies());
+        for (int i = 0; i < map.getRevealedPrizes().size(); i++) {
+            fill(PRIZES, (GameObject) map.getRevealedPrizes().get(i), false);
+        }
+        fill(PROJECTILES, map.getFireballs());
+        if (map.getAxe() != null) {
+            fill(PROJECTILES, map.getAxe(), false);
+        }
+        Bowser bowser = map.getBowser();
+        if (bowser != null) {
+            fill(PROJECTILES, bowser.getFire());
+            fill(PROJECTILES, bowser.getBomb());
+        }
+
+        // small, super and fire forms are 1, 2 and 3
+        int form = hero.isSuper() ? (hero.getHeroForm().ifCanShootFire() ? 3 : 2) : 1;
+        fill(HERO, hero, false, form);
+
+        this.grid = null;
+    }
+
+    public void encodeHero(MapManager mapManager, float[] features, int offset) {
+        Arrays.fill(features, offset, offset + HERO_FEATURES, 0);
+        Hero hero = mapManager.getHero();
+        if (hero == null) {
+            return;
+        }
+
+        features[offset + VEL_X] = (float) hero.getVelX();
+        features[offset + VEL_Y] = (float) hero.getVelY();
+        features[offset + OFFSET_X] = (float) (hero.getX() - Math.floor(hero.getX() / TILE) * TILE) / TILE;
+        features[offset + OFFSET_Y] = (float) (hero.getY() - Math.floor(hero.getY() / TILE) * TILE) / TILE;
+        features[offset + FALLING] = hero.isFalling() ? 1 : 0;
+        features[offset + JUMPING] = hero.isJumping() ? 1 : 0;
+        features[offset + SUPER] = hero.isSuper() ? 1 : 0;
+        features[offset + CAN_SHOOT_FIRE] = hero.getHeroForm().ifCanShootFire() ? 1 : 0;
+        features[offset + INVINCIBLE] = hero.ifTookStar() ? 0 : 1;
+        features[offset + LIVES] = hero.getRemainingLives();
+        features[offset + COINS] = hero.getCoins();
+        features[offset + PROGRESS] = (float) mapManager.getProgressRate();
+        features[offset + REMAINING_TIME] = mapManager.getRemainingTime();
+    }
+
+    private void fill(int channel, ArrayList<? extends GameObject> objects) {
+        for (int i = 0; i < objects.size(); i++) {
+            fill(channel, objects.get(i), true);
+        }
+    }
+
+    private void fill(int channel, GameObject object, boolean skipAsleep) {
+        fill(channel, object, skipAsleep, object.getKind() + 1);
+    }
+
+    private void fill(int channel, GameObject object, boolean skipAsleep, int value) {
+        if (skipAsleep && object.isAsleep()) {
+            return;
+        }
+
+        int left = (int) Math.floor(object.getX() / TILE) - firstColumn;
+        int right = (int) Math.floor((object.getX() + object.getWidth() - 1) / TILE) - firstColumn;
+        if (right < 0 || left >= columns) {
+            return;
+        }
+        int top = (int) Math.floor(object.getY() / TILE);
+        int bottom = (int) Math.floor((object.getY() + object.getHeight() - 1) / TILE);
+
+        int base = offset + channel * cells;
+        for (int row = Math.max(0, top); row <= Math.min(rows - 1, bottom); row++) {
+            for (int column = Math.max(0, left); column <= Math.min(columns - 1, right); column++) {
+                grid[base + row * columns + column] = (byte) value;
+            }
+        }
+    }
+}
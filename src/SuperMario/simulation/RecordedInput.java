@@ -0,0 +1,67 @@
+package SuperMario.simulation;
+
+import SuperMario.graphic.manager.InputManager;
+
+import java.util.Arrays;
+
+public class RecordedInput implements InputScript {
+
+    private long[] ticks = new long[16];
+    private int[] keyCodes = new int[16];
+    private boolean[] pressed = new boolean[16];
+    private int size;
+
+    public RecordedInput press(long tick, int keyCode) {
+        return add(tick, keyCode, true);
+    }
+
+    public RecordedInput release(long tick, int keyCode) {
+        return add(tick, keyCode, false);
+    }
+
+    private RecordedInput add(long tick, int keyCode, boolean isPressed) {
+        if (size > 0 && tick < ticks[size - 1]) {
+            throw new IllegalArgumentException("Input at tick " + tick + " recorded after tick " + ticks[size - 1]);
+        }
+        if (size == ticks.length) {
+            ticks = Arrays.copyOf(ticks, size * 2);
+            keyCodes = Arrays.copyOf(keyCodes, size * 2);
+            pressed = Arrays.copyOf(pressed, size * 2);
+        }
+        ticks[size] = tick;
+        keyCodes[size] = keyCode;
+        pressed[size] = isPressed;
+        size++;
+        return this;
+    }
+
+    @Override
+    public void apply(long tick, InputManager input) {
+        int i = first(tick);
+        while (i < size && ticks[i] == tick) {
+            if (pressed[i]) {
+                input.press(keyCodes[i]);
+            } else {
+                input.release(keyCodes[i]);
+            }
+            i++;
+        }
+    }
+
+    private int first(long tick) {
+        int low = 0, high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (ticks[middle] < tick) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,66 @@
+package SuperMario.simulation;
+
+public class VectorEnv {
+
+    private final GameEnv[] envs;
+
+    public VectorEnv(int count, long maxTicks) {
+        envs = new GameEnv[count];
+        for (int i = 0; i < count; i++) {
+            envs[i] = new GameEnv(maxTicks);
+        }
+    }
+
+    public void reset(long seed, int worldNumber, int heroType) {
+        for (int i = 0; i < envs.length; i++) {
+            envs[i].reset(seed + i, worldNumber, heroType);
+        }
+    }
+
+    public void reset(int index, long seed, int worldNumber, int heroType) {
+        envs[index].reset(seed, worldNumber, heroType);
+    }
+
+    public void step(int[] actions, double[] rewards, boolean[] dones) {
+        step(actions, rewards, dones, null, null, null);
+    }
+
+    // finished environments are reset inside step, so observe() afterwards already shows their next episode;
+    // with an encoder their last frame is written to finalGrid and finalFeatures first, at the same offsets as observe()
+    public void step(int[] actions, double[] rewards, boolean[] dones,
+                     ObservationEncoder encoder, byte[] finalGrid, float[] finalFeatures) {
+        for (int i = 0; i < envs.length; i++) {
+            GameEnv env = envs[i];
+            rewards[i] = env.step(actions[i]);
+            dones[i] = env.isDone();
+            if (dones[i]) {
+                if (encoder != null) {
+                    env.observe(encoder, finalGrid, finalFeatures, i);
+                }
+                // finished environments start over right away, on the next seed of their own stride
+                env.reset(env.getSeed() + envs.length, env.getWorldNumber(), env.getHeroType());
+            }
+        }
+    }
+
+    // one environment after another in the same buffers, sized size() * getGridSize() and size() * HERO_FEATURES
+    public void observe(ObservationEncoder encoder, byte[] grid, float[] features) {
+        for (int i = 0; i < envs.length; i++) {
+            envs[i].observe(encoder, grid, features, i);
+        }
+    }
+
+    public void close() {
+        for (GameEnv env : envs) {
+            env.close();
+        }
+    }
+
+    public GameEnv get(int index) {
+        return envs[index];
+    }
+
+    public int size() {
+        return envs.length;
+    }
+}